@@ -0,0 +1,55 @@
+package mutithreading.java_multi_threading.concurrent_collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Same workload as MapContentionBenchmark for IntIntConcurrentMap
+// Add "-prof gc" to see gc.alloc.rate.norm (bytes/op) next to the timing
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class IntIntMapContentionBenchmark {
+
+    @Param({"50", "90", "99"})
+    public int readPercent;
+
+    @Param({"1000", "550000"})
+    public int keyCount;
+
+    private IntIntConcurrentMap map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new IntIntConcurrentMap(keyCount, -1);
+        for (int i = 0; i < keyCount; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public int getOrPut() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(keyCount);
+        if (random.nextInt(100) < readPercent) {
+            return map.get(key);
+        }
+        return map.put(key, key);
+    }
+
+}
@@ -0,0 +1,105 @@
+package mutithreading.java_multi_threading.concurrent_collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// JMH version of ConcurrentHashMapSynchronizedMap.test
+// Throughput gives ops/us, SampleTime gives p50/p99/p99.9 latency per single get or put
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MapContentionBenchmark {
+
+    @Param({"Hashtable", "synchronizedMap", "ConcurrentHashMap"})
+    public String mapType;
+
+    // Percent of operations that are get(), the rest are put()
+    @Param({"50", "90", "99"})
+    public int readPercent;
+
+    @Param({"1000", "550000"})
+    public int keyCount;
+
+    private Map<String, Integer> map;
+    // Keys are created once, so we measure the map and not String.valueOf
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = createMap(mapType);
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = String.valueOf(i);
+            map.put(keys[i], i);
+        }
+    }
+
+    static Map<String, Integer> createMap(String mapType) {
+        switch (mapType) {
+            case "Hashtable":
+                return new Hashtable<>();
+            case "synchronizedMap":
+                return Collections.synchronizedMap(new HashMap<String, Integer>());
+            case "ConcurrentHashMap":
+                return new ConcurrentHashMap<>();
+            default:
+                throw new IllegalArgumentException("Unknown map type: " + mapType);
+        }
+    }
+
+    @Benchmark
+    public void getOrPut(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(keyCount);
+        if (random.nextInt(100) < readPercent) {
+            // get value
+            blackhole.consume(map.get(keys[index]));
+        } else {
+            // put value, Integer.valueOf is cached for small keys only, same as the original test
+            blackhole.consume(map.put(keys[index], index));
+        }
+    }
+
+    // Thread count is not a @Param in JMH, so run the whole matrix for 1, 2, 4 .. N threads
+    // Single run with fixed thread count: java -jar target/benchmarks.jar MapContentionBenchmark -t 8
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            Options options = new OptionsBuilder()
+                    .include(MapContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package mutithreading.singleton;
+
+import designPatterns.basic.creational.singleton.double_check_lock.SingletonImproved;
+import designPatterns.experienced_design_pattern.creational.singleton.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Contended getInstance() after the instance exists - the path every caller pays forever.
+// synchronized variants take a monitor on every call, DCL pays a volatile read,
+// holder and the racy Preferences read a plain field.
+// Returned object is consumed by JMH, so the call can not be removed as dead code.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SingletonBenchmark {
+
+    @Benchmark
+    public Object synchronizedMethod() {
+        return Singleton.getInstance();
+    }
+
+    @Benchmark
+    public Object synchronizedMethodDesignPatterns() {
+        return designPatterns.basic.creational.singleton.Singleton.getSingleton();
+    }
+
+    @Benchmark
+    public Object doubleCheckLocking() {
+        return mutithreading.singleton.doubleCheckLocking.Singleton.getInstance();
+    }
+
+    @Benchmark
+    public Object doubleCheckLockingImproved() {
+        return SingletonImproved.getInstance();
+    }
+
+    @Benchmark
+    public Object racyRead() {
+        return Preferences.getInstance();
+    }
+
+    @Benchmark
+    public Object holder() {
+        return mutithreading.singleton.holder.Singleton.getInstance();
+    }
+
+    // Thread count is not a @Param in JMH, so run all variants for 1, 2, 4 .. N threads
+    // Single run with fixed thread count: java -jar target/benchmarks.jar SingletonBenchmark -t 8
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            Options options = new OptionsBuilder()
+                    .include(SingletonBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+}
@@ -1,22 +1,32 @@
 package designPatterns.basic.creational.singleton.using_enum;
 
+import mutithreading.limiter.AdaptiveLimiter;
+
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 enum Downloader {   // enum is thread safe
     INSTANCE;
 
-    private Semaphore semaphore = new Semaphore(3, true);
+    // Permits follow measured latency instead of fixed Semaphore(3, true)
+    private AdaptiveLimiter limiter = AdaptiveLimiter.fromSystemProperty(3, 50, 4500);
 
     public void downloadData() {
+        AdaptiveLimiter.Permit permit = null;
         try {
-            semaphore.acquire();
+            permit = limiter.tryAcquire(10, TimeUnit.SECONDS);
+            if (permit == null) {
+                System.out.println("Backend overloaded, download rejected");
+                return;
+            }
             download();
+            permit.success();
         } catch (Exception e) {
             e.printStackTrace();
-        } finally {
-            semaphore.release();
+            if (permit != null) {
+                permit.dropped();
+            }
         }
     }
 
@@ -0,0 +1,8 @@
+package mutithreading.cancellation;
+
+public interface CancellableCallable<V> {
+
+    // Should check token (through a Checkpoint) and return early when it is cancelled
+    V call(CancellationToken token) throws Exception;
+
+}
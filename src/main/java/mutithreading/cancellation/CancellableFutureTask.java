@@ -0,0 +1,38 @@
+package mutithreading.cancellation;
+
+import java.util.concurrent.FutureTask;
+
+public class CancellableFutureTask<V> extends FutureTask<V> {
+
+    // Future.cancel() also cancels the token, so the task stops at its next checkpoint
+    // even when mayInterruptIfRunning is false or the code swallows interrupts.
+
+    private final CancellationToken token;
+
+    public CancellableFutureTask(final CancellableCallable<V> callable, final CancellationToken token) {
+        super(() -> {
+            V result = callable.call(token);
+            // task returned early because of the token - report it as cancelled, not as a result
+            token.throwIfCancelled();
+            return result;
+        });
+        this.token = token;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        token.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    // CancellationException thrown by the task (deadline) is reported as ExecutionException by get(),
+    // this tells both cases apart
+    public boolean isDeadlineExceeded() {
+        return token.isCancelled() && CancellationToken.DEADLINE_EXCEEDED.equals(token.getReason());
+    }
+
+}
@@ -0,0 +1,28 @@
+package mutithreading.cancellation;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public final class Cancellables {
+
+    private Cancellables() {
+    }
+
+    public static <V> CancellableFutureTask<V> submit(Executor executor, CancellableCallable<V> callable) {
+        return submit(executor, callable, new CancellationToken());
+    }
+
+    // Deadline is checked by the task itself at its checkpoints, no timer thread needed
+    public static <V> CancellableFutureTask<V> submit(Executor executor, CancellableCallable<V> callable,
+                                                      long timeout, TimeUnit unit) {
+        return submit(executor, callable, CancellationToken.withTimeout(timeout, unit));
+    }
+
+    public static <V> CancellableFutureTask<V> submit(Executor executor, CancellableCallable<V> callable,
+                                                      CancellationToken token) {
+        CancellableFutureTask<V> task = new CancellableFutureTask<>(callable, token);
+        executor.execute(task);
+        return task;
+    }
+
+}
@@ -0,0 +1,90 @@
+package mutithreading.cancellation;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+public class CancellationToken {
+
+    // Shared stop flag for cooperative cancellation of CPU-bound work.
+    // Reading it is one volatile read (plus System.nanoTime when there is a deadline),
+    // so hot loops should not ask every iteration - use Checkpoint.
+
+    public static final String CANCELLED = "cancelled";
+    public static final String DEADLINE_EXCEEDED = "deadline exceeded";
+    public static final String INTERRUPTED = "interrupted";
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final CancellationToken parent;
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private volatile String reason;
+
+    public CancellationToken() {
+        this(null, NO_DEADLINE);
+    }
+
+    private CancellationToken(CancellationToken parent, long deadlineNanos) {
+        this.parent = parent;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+        return new CancellationToken().childWithTimeout(timeout, unit);
+    }
+
+    // Child is cancelled when the parent is, and additionally when its own deadline passes
+    // (the earlier of both deadlines wins)
+    public CancellationToken childWithTimeout(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (deadlineNanos != NO_DEADLINE && deadlineNanos - deadline < 0) {
+            deadline = deadlineNanos;
+        }
+        return new CancellationToken(this, deadline);
+    }
+
+    public CancellationToken child() {
+        return new CancellationToken(this, deadlineNanos);
+    }
+
+    public void cancel() {
+        cancel(CANCELLED);
+    }
+
+    public void cancel(String reason) {
+        if (!cancelled) {
+            this.reason = reason;
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+            cancel(DEADLINE_EXCEEDED);
+            return true;
+        }
+        if (parent != null && parent.isCancelled()) {
+            cancel(parent.getReason());
+            return true;
+        }
+        return false;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    // nanoseconds left, Long.MAX_VALUE without deadline
+    public long remainingNanos() {
+        return deadlineNanos == NO_DEADLINE ? Long.MAX_VALUE : Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException(reason);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package mutithreading.cancellation;
+
+public class Checkpoint {
+
+    // Amortized cancellation check for hot loops:
+    //     Checkpoint checkpoint = new Checkpoint(token, 1024);
+    //     for (...) { if (checkpoint.shouldStop()) break; work(); }
+    // shouldStop() is a counter increment and a mask test; only every `interval` calls it reads
+    // the token (volatile read, deadline) and the interrupt flag of the current thread.
+    // Worst case stop latency = interval x duration of one iteration.
+    // One Checkpoint per thread - the counter is not thread safe on purpose.
+
+    private final CancellationToken token;
+    private final int mask;
+    private int counter;
+    private boolean stopped;
+
+    public Checkpoint(CancellationToken token, int interval) {
+        if (Integer.bitCount(interval) != 1) {
+            throw new IllegalArgumentException("interval must be power of 2: " + interval);
+        }
+        this.token = token;
+        this.mask = interval - 1;
+    }
+
+    public boolean shouldStop() {
+        if ((++counter & mask) != 0) {
+            return stopped;
+        }
+        if (!stopped && (token.isCancelled() || Thread.currentThread().isInterrupted())) {
+            if (!token.isCancelled()) {
+                token.cancel(CancellationToken.INTERRUPTED);
+            }
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+}
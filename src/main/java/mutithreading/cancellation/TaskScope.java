@@ -0,0 +1,303 @@
+package mutithreading.cancellation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class TaskScope<T> implements AutoCloseable {
+
+    // Java 8 version of structured concurrency (StructuredTaskScope, JDK 21 preview):
+    // fork a group of subtasks, join them together, no subtask outlives the scope.
+    //  SHUTDOWN_ON_FAILURE - first failure cancels the siblings, results() gives all values or throws
+    //  SHUTDOWN_ON_SUCCESS - first success cancels the siblings, result() gives that value
+    // Cancel = scope token cancelled (subtasks see it at their checkpoints) + Future.cancel(true) (interrupt).
+    // Every subtask token is a child of the scope token, so the scope deadline and a cancelled
+    // parent token reach all subtasks.
+    //
+    // try (TaskScope<Integer> scope = new TaskScope<>(executor, Policy.SHUTDOWN_ON_FAILURE, 2, SECONDS)) {
+    //     scope.fork(...); scope.fork(...);
+    //     scope.join();
+    //     List<Integer> values = scope.results();
+    // }
+
+    public enum Policy {
+        SHUTDOWN_ON_FAILURE,
+        SHUTDOWN_ON_SUCCESS
+    }
+
+    private static final String SCOPE_SHUTDOWN = "scope shutdown";
+    // join() also wakes up this often to notice a cancelled parent token
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Executor executor;
+    private final Policy policy;
+    private final CancellationToken token;
+    private final Object lock = new Object();
+    // guarded by lock
+    private final List<Subtask> subtasks = new ArrayList<>();
+    private int completed;
+    private int running;
+    // subtasks that gave up because the scope token was cancelled (deadline, parent)
+    private int stopped;
+    private boolean shutdown;
+    private boolean joined;
+    private Subtask firstSuccess;
+    private Subtask firstFailure;
+
+    private class Subtask extends CancellableFutureTask<T> {
+
+        Subtask(CancellableCallable<T> callable, CancellationToken token) {
+            super(callable, token);
+        }
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                running++;
+            }
+            try {
+                super.run();
+            } finally {
+                synchronized (lock) {
+                    running--;
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            onDone(this);
+        }
+    }
+
+    public TaskScope(Executor executor, Policy policy) {
+        this(executor, policy, new CancellationToken());
+    }
+
+    public TaskScope(Executor executor, Policy policy, long timeout, TimeUnit unit) {
+        this(executor, policy, CancellationToken.withTimeout(timeout, unit));
+    }
+
+    // Scope inside a task of another scope: pass the task token, its deadline and cancellation propagate
+    public TaskScope(Executor executor, Policy policy, CancellationToken parent) {
+        this.executor = executor;
+        this.policy = policy;
+        this.token = parent.child();
+    }
+
+    public CancellableFutureTask<T> fork(CancellableCallable<T> callable) {
+        Subtask subtask = new Subtask(callable, token.child());
+        synchronized (lock) {
+            if (joined) {
+                throw new IllegalStateException("Can not fork after join");
+            }
+            subtasks.add(subtask);
+            if (shutdown) {
+                // scope already decided, do not start new work
+                subtask.cancel(false);
+                return subtask;
+            }
+        }
+        executor.execute(subtask);
+        return subtask;
+    }
+
+    // For code without checkpoints, it is stopped by interrupt only
+    public CancellableFutureTask<T> fork(final Callable<T> callable) {
+        return fork(token -> callable.call());
+    }
+
+    // Waits until all subtasks are done or the policy shut the scope down.
+    // TimeoutException when the deadline passed first, remaining subtasks are cancelled.
+    public TaskScope<T> join() throws InterruptedException, TimeoutException {
+        boolean finished;
+        synchronized (lock) {
+            joined = true;
+            while (!(finished = completed == subtasks.size() || shutdown) && !token.isCancelled()) {
+                long waitNanos = Math.min(token.remainingNanos(), MAX_WAIT_NANOS);
+                TimeUnit.NANOSECONDS.timedWait(lock, Math.max(waitNanos, 1));
+            }
+            // all subtasks done, but some only because they saw the deadline first
+            finished &= shutdown || stopped == 0;
+        }
+        if (!finished) {
+            // deadline passed or parent token cancelled
+            String reason = token.getReason();
+            shutdown(reason);
+            if (CancellationToken.DEADLINE_EXCEEDED.equals(reason)) {
+                throw new TimeoutException(CancellationToken.DEADLINE_EXCEEDED);
+            }
+            throw new CancellationException(reason);
+        }
+        return this;
+    }
+
+    // SHUTDOWN_ON_FAILURE: all results in fork order, or the first failure (others added as suppressed)
+    public List<T> results() throws ExecutionException {
+        synchronized (lock) {
+            checkJoined();
+            if (firstFailure != null) {
+                throw failure(firstFailure);
+            }
+            List<T> results = new ArrayList<>(subtasks.size());
+            for (Subtask subtask : subtasks) {
+                results.add(valueOf(subtask));
+            }
+            return results;
+        }
+    }
+
+    // SHUTDOWN_ON_SUCCESS: first successful result, or ExecutionException with all failures
+    public T result() throws ExecutionException {
+        synchronized (lock) {
+            checkJoined();
+            if (firstSuccess != null) {
+                return valueOf(firstSuccess);
+            }
+            ExecutionException failure = null;
+            for (Subtask subtask : subtasks) {
+                if (subtask.isCancelled()) {
+                    continue;
+                }
+                Throwable cause = causeOf(subtask);
+                if (failure == null) {
+                    failure = new ExecutionException("No subtask completed successfully", cause);
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+            if (failure == null) {
+                throw new CancellationException("All subtasks cancelled");
+            }
+            throw failure;
+        }
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return shutdown;
+        }
+    }
+
+    // Cancels what is still running and waits until no subtask runs any more
+    @Override
+    public void close() {
+        shutdown(SCOPE_SHUTDOWN);
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (running > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onDone(Subtask subtask) {
+        boolean shutdownNow = false;
+        synchronized (lock) {
+            completed++;
+            if (!subtask.isCancelled()) {
+                Throwable cause = causeOf(subtask);
+                if (cause == null) {
+                    if (firstSuccess == null) {
+                        firstSuccess = subtask;
+                        shutdownNow = policy == Policy.SHUTDOWN_ON_SUCCESS;
+                    }
+                } else if (stoppedByScope(cause)) {
+                    stopped++;
+                } else if (firstFailure == null) {
+                    firstFailure = subtask;
+                    shutdownNow = policy == Policy.SHUTDOWN_ON_FAILURE;
+                }
+            }
+            lock.notifyAll();
+        }
+        if (shutdownNow) {
+            shutdown(SCOPE_SHUTDOWN);
+        }
+    }
+
+    // subtask that stopped because the scope was shut down or its deadline passed did not fail on its own
+    private boolean stoppedByScope(Throwable cause) {
+        return cause instanceof CancellationException && (shutdown || token.isCancelled());
+    }
+
+    private void shutdown(String reason) {
+        List<Subtask> toCancel;
+        synchronized (lock) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            toCancel = new ArrayList<>(subtasks);
+            lock.notifyAll();
+        }
+        token.cancel(reason);
+        // outside the lock: cancel() calls done() of the subtask, which takes the lock again
+        for (Subtask subtask : toCancel) {
+            subtask.cancel(true);
+        }
+    }
+
+    private void checkJoined() {
+        if (!joined) {
+            throw new IllegalStateException("join() first");
+        }
+    }
+
+    private ExecutionException failure(Subtask failed) {
+        ExecutionException failure = new ExecutionException(causeOf(failed));
+        for (Subtask subtask : subtasks) {
+            if (subtask != failed && subtask.isDone() && !subtask.isCancelled()) {
+                Throwable cause = causeOf(subtask);
+                if (cause != null) {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        return failure;
+    }
+
+    // subtask must be done
+    private T valueOf(Subtask subtask) throws ExecutionException {
+        try {
+            return subtask.get();
+        } catch (InterruptedException e) {
+            // done future does not block
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // null when the done subtask succeeded
+    private Throwable causeOf(Subtask subtask) {
+        try {
+            subtask.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (CancellationException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+}
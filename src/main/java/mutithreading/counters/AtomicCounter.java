@@ -0,0 +1,21 @@
+package mutithreading.counters;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AtomicCounter implements Counter {
+
+    // No lock, compare-and-swap loop on single variable.
+    // Still one cache line shared by all threads, so it stops scaling under contention
+    private final AtomicLong count = new AtomicLong();
+
+    @Override
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    @Override
+    public long get() {
+        return count.get();
+    }
+
+}
@@ -0,0 +1,9 @@
+package mutithreading.counters;
+
+public interface Counter {
+
+    void increment();
+
+    long get();
+
+}
@@ -0,0 +1,57 @@
+package mutithreading.counters;
+
+import java.util.concurrent.CountDownLatch;
+
+public class CounterScaling {
+
+    // Throughput of every counter backend for 1 .. N threads
+    // java mutithreading.counters.CounterScaling [incrementsPerThread]
+
+    public static void main(String[] args) throws InterruptedException {
+        int incrementsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (CounterType type : CounterType.values()) {
+            // warm up
+            run(type.create(), cores, incrementsPerThread / 10);
+            for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+                Counter counter = type.create();
+                long nanos = run(counter, threads, incrementsPerThread);
+                long expected = (long) threads * incrementsPerThread;
+                if (counter.get() != expected) {
+                    throw new IllegalStateException(type + " lost updates: " + counter.get() + " != " + expected);
+                }
+                System.out.printf("%-15s threads: %3d  %10.1f increments/ms%n",
+                        type, threads, expected / (nanos / 1_000_000.0));
+                if (threads == cores) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static long run(final Counter counter, int threads, final int incrementsPerThread) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < incrementsPerThread; j++) {
+                    counter.increment();
+                }
+            });
+            workers[i].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+}
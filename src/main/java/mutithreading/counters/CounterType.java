@@ -0,0 +1,46 @@
+package mutithreading.counters;
+
+public enum CounterType {
+    SYNCHRONIZED {
+        @Override
+        public Counter create() {
+            return new SynchronizedCounter();
+        }
+    },
+    REENTRANT_LOCK {
+        @Override
+        public Counter create() {
+            return new LockCounter();
+        }
+    },
+    ATOMIC {
+        @Override
+        public Counter create() {
+            return new AtomicCounter();
+        }
+    },
+    PADDED_ATOMIC {
+        @Override
+        public Counter create() {
+            return new PaddedAtomicCounter();
+        }
+    },
+    STRIPED {
+        @Override
+        public Counter create() {
+            return new StripedCounter();
+        }
+    };
+
+    public abstract Counter create();
+
+    // Demos pick backend with -Dcounter.type=ATOMIC, otherwise they keep their original one
+    public static Counter fromSystemProperty(CounterType defaultType) {
+        String type = System.getProperty("counter.type");
+        if (type == null) {
+            return defaultType.create();
+        }
+        return valueOf(type.toUpperCase()).create();
+    }
+
+}
@@ -0,0 +1,39 @@
+package mutithreading.counters;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LockCounter implements Counter {
+
+    private final Lock lock;
+    private long count = 0;
+
+    public LockCounter() {
+        this(new ReentrantLock());
+    }
+
+    public LockCounter(Lock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public void increment() {
+        lock.lock();
+        try {
+            count++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long get() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package mutithreading.counters;
+
+import mutithreading.ring_buffer.Sequence;
+
+public class PaddedAtomicCounter implements Counter {
+
+    // AtomicCounter alone on its cache line. AtomicLong objects allocated one after another
+    // end up next to each other on the heap (~16-24 bytes each), so two "independent" counters
+    // updated by two cores share one 64 byte line and invalidate each other (false sharing).
+    // Sequence keeps 7 longs of padding on each side of the value.
+    // @Contended would do the same, but it needs -XX:-RestrictContended and is sun.misc in Java 8,
+    // jdk.internal.vm.annotation in 9+, so it can not be used from code compiled for Java 8.
+    private final Sequence count = new Sequence();
+
+    @Override
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    @Override
+    public long get() {
+        return count.get();
+    }
+
+}
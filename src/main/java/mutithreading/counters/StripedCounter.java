@@ -0,0 +1,63 @@
+package mutithreading.counters;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class StripedCounter implements Counter {
+
+    // Same idea as java.util.concurrent.atomic.LongAdder:
+    // every thread hashes to its own cell, so threads mostly CAS on different cache lines.
+    // get() sums all cells - it is not an atomic snapshot while increments are running.
+
+    // 16 longs = 128 bytes between used cells, two cache lines (adjacent line prefetch)
+    private static final int PADDING = 16;
+
+    // per thread hash, changed after failed CAS to move thread to other cell
+    private static final ThreadLocal<int[]> PROBE = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[]{ThreadLocalRandom.current().nextInt() | 1};
+        }
+    };
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedCounter(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1);
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+    }
+
+    @Override
+    public void increment() {
+        int[] probe = PROBE.get();
+        int hash = probe[0];
+        while (true) {
+            int index = (hash & mask) * PADDING;
+            long value = cells.get(index);
+            if (cells.compareAndSet(index, value, value + 1)) {
+                break;
+            }
+            // contention on this cell, move to other one (xorshift)
+            hash ^= hash << 13;
+            hash ^= hash >>> 17;
+            hash ^= hash << 5;
+            probe[0] = hash;
+        }
+    }
+
+    @Override
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+}
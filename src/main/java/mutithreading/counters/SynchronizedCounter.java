@@ -0,0 +1,18 @@
+package mutithreading.counters;
+
+public class SynchronizedCounter implements Counter {
+
+    // Every increment acquires the intrinsic lock of this object
+    private long count = 0;
+
+    @Override
+    public synchronized void increment() {
+        count++;
+    }
+
+    @Override
+    public synchronized long get() {
+        return count;
+    }
+
+}
@@ -0,0 +1,126 @@
+package mutithreading.handoff;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class HandOff {
+
+    // Replacement for synchronized + wait() / notify() when one thread hands control to another.
+    // wait/notify always goes to the OS: the waiter parks, notify has to wake it up (~5-50 us),
+    // and the woken thread must get the monitor again.
+    // Here the waiter first spins (checks a volatile flag), then yields, and parks only after that,
+    // so a signal that comes soon is seen in ~100 ns without a system call. The ring_buffer
+    // WaitStrategies are the three phases on their own, this combines them per wait.
+    // Spinning only pays off with a free core for the waiter - on a single core use spins = 0.
+    //
+    // signal() leaves a permit (like a binary semaphore), a signal before await() is not lost.
+    // One waiting thread at a time, any thread can signal.
+
+    private static final AtomicIntegerFieldUpdater<HandOff> PERMIT =
+            AtomicIntegerFieldUpdater.newUpdater(HandOff.class, "permit");
+
+    private final int spins;
+    private final int yields;
+    private volatile int permit;
+    private volatile Thread waiter;
+    // in which phase awaits got the signal - for tuning spins and yields
+    private final LongAdder spinHits = new LongAdder();
+    private final LongAdder yieldHits = new LongAdder();
+    private final LongAdder parks = new LongAdder();
+
+    // -Dhandoff.spins (default 1000, 0 on a single core), -Dhandoff.yields (default 10)
+    public HandOff() {
+        this(Integer.getInteger("handoff.spins", Runtime.getRuntime().availableProcessors() > 1 ? 1000 : 0),
+                Integer.getInteger("handoff.yields", 10));
+    }
+
+    public HandOff(int spins, int yields) {
+        if (spins < 0 || yields < 0) {
+            throw new IllegalArgumentException("Spins and yields must not be negative");
+        }
+        this.spins = spins;
+        this.yields = yields;
+    }
+
+    public void signal() {
+        permit = 1;
+        // waiter is written before the permit is checked by await(), permit before waiter is read here:
+        // one of both threads always sees the other one, no lost wake up
+        Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public void await() throws InterruptedException {
+        if (spinThenYield()) {
+            return;
+        }
+        parks.increment();
+        waiter = Thread.currentThread();
+        try {
+            while (!tryAcquire()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                LockSupport.park(this);
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    // false on timeout
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (spinThenYield()) {
+            return true;
+        }
+        parks.increment();
+        waiter = Thread.currentThread();
+        try {
+            while (!tryAcquire()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return true;
+        } finally {
+            waiter = null;
+        }
+    }
+
+    public String stats() {
+        return String.format("spin hits: %d, yield hits: %d, parks: %d", spinHits.sum(), yieldHits.sum(), parks.sum());
+    }
+
+    private boolean spinThenYield() {
+        for (int i = 0; i < spins; i++) {
+            if (tryAcquire()) {
+                spinHits.increment();
+                return true;
+            }
+        }
+        for (int i = 0; i < yields; i++) {
+            if (tryAcquire()) {
+                yieldHits.increment();
+                return true;
+            }
+            Thread.yield();
+        }
+        return false;
+    }
+
+    private boolean tryAcquire() {
+        // plain read first, CAS only when there is something to take
+        return permit == 1 && PERMIT.compareAndSet(this, 1, 0);
+    }
+
+}
@@ -0,0 +1,94 @@
+package mutithreading.handoff;
+
+public class PingPongBenchmark {
+
+    // Two threads pass control back and forth, round trip = ping + pong hand-off.
+    // Monitor version is the wait_and_notify Processor pattern with a flag against lost / spurious wake ups.
+    // java mutithreading.handoff.PingPongBenchmark [roundTrips]
+
+    private interface Signal {
+        void signal();
+
+        void await() throws InterruptedException;
+    }
+
+    private static class MonitorSignal implements Signal {
+        private boolean signalled;
+
+        @Override
+        public synchronized void signal() {
+            signalled = true;
+            notify();
+        }
+
+        @Override
+        public synchronized void await() throws InterruptedException {
+            while (!signalled) {
+                wait();
+            }
+            signalled = false;
+        }
+    }
+
+    private static class HandOffSignal implements Signal {
+        private final HandOff handOff;
+
+        HandOffSignal(int spins, int yields) {
+            this.handOff = new HandOff(spins, yields);
+        }
+
+        @Override
+        public void signal() {
+            handOff.signal();
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            handOff.await();
+        }
+
+        @Override
+        public String toString() {
+            return handOff.stats();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int roundTrips = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors()
+                + " (spinning needs 2+, with 1 core the spinning thread only delays the other one)");
+        for (int round = 0; round < 3; round++) {
+            System.out.println(round == 0 ? "Warm up" : "Round " + round);
+            run("wait/notify", new MonitorSignal(), new MonitorSignal(), roundTrips);
+            run("park only", new HandOffSignal(0, 0), new HandOffSignal(0, 0), roundTrips);
+            run("yield, park", new HandOffSignal(0, 10), new HandOffSignal(0, 10), roundTrips);
+            run("spin 1000, yield, park", new HandOffSignal(1000, 10), new HandOffSignal(1000, 10), roundTrips);
+            run("spin 100000, park", new HandOffSignal(100_000, 0), new HandOffSignal(100_000, 0), roundTrips);
+        }
+    }
+
+    private static void run(String name, final Signal ping, final Signal pong, final int roundTrips)
+            throws InterruptedException {
+        Thread ponger = new Thread(() -> {
+            try {
+                for (int i = 0; i < roundTrips; i++) {
+                    ping.await();
+                    pong.signal();
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+        ponger.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < roundTrips; i++) {
+            ping.signal();
+            pong.await();
+        }
+        long elapsed = System.nanoTime() - start;
+        ponger.join();
+        String stats = ping instanceof HandOffSignal ? "  (" + pong + ")" : "";
+        System.out.printf("%-24s %10.0f ns/round trip%s%n", name, (double) elapsed / roundTrips, stats);
+    }
+
+}
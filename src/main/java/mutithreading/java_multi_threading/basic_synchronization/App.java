@@ -1,16 +1,33 @@
 package mutithreading.java_multi_threading.basic_synchronization;
 
+import mutithreading.timer.HashedWheelTimer;
+import mutithreading.timer.Timeout;
+
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 class Processor extends Thread {
 
     // volatile value not cached read every time from main memory
     private volatile boolean running = true;
 
+    // One iteration of run() without the sleep
+    public boolean tick() {
+        if (!running) {
+            return false;
+        }
+        System.out.println("Hello");
+        return true;
+    }
+
+    // Timer calls tick() every 100 ms, no thread blocked in Thread.sleep
+    public Timeout scheduleOn(HashedWheelTimer timer) {
+        return timer.repeat(this::tick, 0, 100, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void run() {
-        while (running) {
-            System.out.println("Hello");
+        while (tick()) {
             try {
                 Thread.sleep(100);
             } catch (InterruptedException e) {
@@ -26,6 +43,11 @@ class Processor extends Thread {
 
 public class App {
 
+    // Processor is package private, this is the way to schedule it from outside
+    public static Timeout scheduleProcessor(HashedWheelTimer timer) {
+        return new Processor().scheduleOn(timer);
+    }
+
     public static void main(String[] args) {
         Processor processor = new Processor();
         processor.start();
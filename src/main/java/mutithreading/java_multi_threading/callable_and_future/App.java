@@ -1,6 +1,12 @@
 package mutithreading.java_multi_threading.callable_and_future;
 
+import mutithreading.cancellation.CancellableFutureTask;
+import mutithreading.cancellation.TaskScope;
+import mutithreading.metrics.InstrumentedExecutors;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.*;
 
@@ -8,28 +14,11 @@ public class App {
 
     // Return value from multithreading
     // Callable - parametrized class in <> bracket. Between bracket put the return type
-    public static void main(String[] args) {
-        ExecutorService executorService = Executors.newCachedThreadPool();
-        Future<Integer> future = executorService.submit(new Callable<Integer>() {
-            @Override
-            public Integer call() throws Exception {
-                Random random = new Random();
-                int duration = random.nextInt(4000);
-                if (duration > 2000) {
-                    throw new IOException("Sleeping for too long");
-                }
-                System.out.println("Starting...");
-                try {
-                    Thread.sleep(duration);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-                System.out.println("Finished");
-                return duration;
-            }
-        });
+    public static void main(String[] args) throws InterruptedException {
+        // sampleEvery = 1: a few tasks only, time every one of them
+        ExecutorService executorService = InstrumentedExecutors.newCachedThreadPool("callable-and-future-app", 1);
+        Future<Integer> future = executorService.submit(newTask(0));
 
-        executorService.shutdown();
         //future.isCancelled();
         //future.isDone();
 
@@ -42,6 +31,68 @@ public class App {
             IOException ex = (IOException)e.getCause();
             System.out.println(ex.getMessage());
         }
+
+        // Group of callables: first IOException cancels the siblings instead of letting them sleep on,
+        // and the whole group has a 3 s deadline
+        List<CancellableFutureTask<Integer>> subtasks = new ArrayList<>();
+        try (TaskScope<Integer> scope = new TaskScope<>(executorService, TaskScope.Policy.SHUTDOWN_ON_FAILURE,
+                3, TimeUnit.SECONDS)) {
+            for (int i = 1; i <= 5; i++) {
+                subtasks.add(scope.fork(newTask(i)));
+            }
+            scope.join();
+            System.out.println("All results: " + scope.results());
+        } catch (ExecutionException e) {
+            System.out.println("Failed fast: " + e.getCause().getMessage() + ", cancelled siblings: "
+                    + cancelled(subtasks));
+        } catch (TimeoutException e) {
+            System.out.println("Deadline exceeded, cancelled: " + cancelled(subtasks));
+        }
+
+        // Scatter/gather where any answer is enough: first success cancels the rest
+        try (TaskScope<Integer> scope = new TaskScope<>(executorService, TaskScope.Policy.SHUTDOWN_ON_SUCCESS)) {
+            for (int i = 6; i <= 10; i++) {
+                scope.fork(newTask(i));
+            }
+            scope.join();
+            System.out.println("First result: " + scope.result());
+        } catch (ExecutionException e) {
+            System.out.println("Every task failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            // no deadline on this scope
+            e.printStackTrace();
+        }
+
+        executorService.shutdown();
+        System.out.println(InstrumentedExecutors.snapshot());
+    }
+
+    private static Callable<Integer> newTask(final int id) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                Random random = new Random();
+                int duration = random.nextInt(4000);
+                if (duration > 2000) {
+                    throw new IOException("Sleeping for too long (task " + id + ")");
+                }
+                System.out.println("Starting " + id + "...");
+                // interrupted when the scope cancels this task
+                Thread.sleep(duration);
+                System.out.println("Finished " + id);
+                return duration;
+            }
+        };
+    }
+
+    private static int cancelled(List<? extends Future<?>> futures) {
+        int count = 0;
+        for (Future<?> future : futures) {
+            if (future.isCancelled()) {
+                count++;
+            }
+        }
+        return count;
     }
 
 }
@@ -1,5 +1,7 @@
 package mutithreading.java_multi_threading.concurrent_collections;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Hashtable;
@@ -8,14 +10,18 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ConcurrentHashMapSynchronizedMap {
 
     public final static int THREAD_POOL_SIZE = 5;
+    private final static int ITERATIONS = 50000;
+    private final static int KEY_RANGE = 550000;
 
     public static Map<String, Integer> myHashTable = null;
     public static Map<String, Integer> mySynchronizedMap = null;
     public static Map<String, Integer> myConcurrentHashMap = null;
+    public static IntIntConcurrentMap myIntIntConcurrentMap = null;
 
     public static void main(String[] args) throws InterruptedException {
         myHashTable = new Hashtable<String, Integer>();
@@ -26,24 +32,63 @@ public class ConcurrentHashMapSynchronizedMap {
 
         myConcurrentHashMap = new ConcurrentHashMap<String, Integer>();
         test(myConcurrentHashMap);
+
+        // no String keys, no Integer boxing, no entry nodes
+        myIntIntConcurrentMap = new IntIntConcurrentMap(KEY_RANGE, -1);
+        test(myIntIntConcurrentMap);
     }
 
+    // Quick demo only - no warmup, no forks, average only.
+    // For numbers used in decisions run MapContentionBenchmark (src/jmh/java): mvn -Pjmh package
     public static void test(final Map<String, Integer> maps) throws InterruptedException {
-        System.out.println("Test started for: " + maps.getClass());
+        test(maps.getClass().toString(), new Operation() {
+            @Override
+            public void run(int random) {
+                // get value
+                Integer value = maps.get(String.valueOf(random));
+                // Put value
+                maps.put(String.valueOf(random), random);
+            }
+        });
+    }
+
+    public static void test(final IntIntConcurrentMap map) throws InterruptedException {
+        test(map.getClass().toString(), new Operation() {
+            @Override
+            public void run(int random) {
+                int value = map.get(random);
+                map.put(random, random);
+            }
+        });
+    }
+
+    private interface Operation {
+        // one get and one put
+        void run(int random);
+    }
+
+    private static void test(String name, final Operation operation) throws InterruptedException {
+        System.out.println("Test started for: " + name);
         long avgTime = 0;
+        long totalBytes = 0;
         for (int i = 0; i < 5; i++) {
+            final AtomicLong allocatedBytes = new AtomicLong();
             long start = System.nanoTime();
             ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
             for (int j = 0; j < THREAD_POOL_SIZE; j++) {
                 executorService.execute(new Runnable() {
                     @Override
                     public void run() {
-                        for (int i = 0; i < 50000; i++) {
-                            Integer random = (int) Math.ceil(Math.random() * 550000);
-                            // get value
-                            Integer value = maps.get(String.valueOf(random));
-                            // Put value
-                            maps.put(String.valueOf(random), random);
+                        long allocatedBefore = threadAllocatedBytes();
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            int random = (int) Math.ceil(Math.random() * KEY_RANGE);
+                            operation.run(random);
+                        }
+                        if (allocatedBefore < 0) {
+                            // not supported, mark whole run as n/a
+                            allocatedBytes.set(Long.MIN_VALUE / 2);
+                        } else {
+                            allocatedBytes.addAndGet(threadAllocatedBytes() - allocatedBefore);
                         }
                     }
                 });
@@ -55,11 +100,32 @@ public class ConcurrentHashMapSynchronizedMap {
             long endTime = System.nanoTime();
             long total = (endTime - start)  / 1000000L;
             avgTime += total;
-            System.out.println("2500K entried added/retrieved in " + total + " ms");
+            totalBytes += allocatedBytes.get();
+            System.out.println("2500K entried added/retrieved in " + total + " ms, "
+                    + bytesPerOp(allocatedBytes.get()) + " bytes/op");
         }
-        System.out.println("For " + maps.getClass() + " the average time is " + avgTime / 5 + " ms\n");
+        System.out.println("For " + name + " the average time is " + avgTime / 5 + " ms, allocation rate is "
+                + bytesPerOp(totalBytes / 5) + " bytes/op\n");
     }
 
+    // get and put are counted as separate operations
+    private static String bytesPerOp(long bytes) {
+        if (bytes < 0) {
+            return "n/a";
+        }
+        return String.format("%.1f", (double) bytes / (2L * THREAD_POOL_SIZE * ITERATIONS));
+    }
 
+    // Bytes allocated by the current thread so far, -1 when the JVM can not tell
+    private static long threadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (hotSpotBean.isThreadAllocatedMemorySupported() && hotSpotBean.isThreadAllocatedMemoryEnabled()) {
+                return hotSpotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
 
 }
@@ -0,0 +1,100 @@
+package mutithreading.java_multi_threading.concurrent_collections;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class IntIntConcurrentMap {
+
+    // Open addressing map from int to int without boxing and without node objects.
+    // Key and value are packed into one long slot, so a slot is always read and written
+    // atomically - get() is a plain volatile read, put() is a CAS on a single slot.
+    // No resize and no remove: capacity is fixed when the map is created.
+
+    // Integer.MIN_VALUE marks an empty slot, so it can not be used as a key
+    public static final int NO_KEY = Integer.MIN_VALUE;
+    private static final long EMPTY = pack(NO_KEY, 0);
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final int missingValue;
+
+    public IntIntConcurrentMap(int expectedSize, int missingValue) {
+        // keep load factor at most 0.5, so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.missingValue = missingValue;
+        for (int i = 0; i < capacity; i++) {
+            slots.lazySet(i, EMPTY);
+        }
+    }
+
+    public int get(int key) {
+        checkKey(key);
+        for (int index = indexFor(key), probes = 0; probes <= mask; index = (index + 1) & mask, probes++) {
+            long slot = slots.get(index);
+            int slotKey = keyOf(slot);
+            if (slotKey == key) {
+                return valueOf(slot);
+            }
+            if (slotKey == NO_KEY) {
+                return missingValue;
+            }
+        }
+        return missingValue;
+    }
+
+    // Returns previous value or missingValue
+    public int put(int key, int value) {
+        checkKey(key);
+        long update = pack(key, value);
+        for (int index = indexFor(key), probes = 0; probes <= mask; index = (index + 1) & mask, probes++) {
+            while (true) {
+                long slot = slots.get(index);
+                int slotKey = keyOf(slot);
+                if (slotKey == NO_KEY) {
+                    // claim empty slot, if another thread was faster re-read the same slot
+                    if (slots.compareAndSet(index, EMPTY, update)) {
+                        return missingValue;
+                    }
+                } else if (slotKey == key) {
+                    if (slots.compareAndSet(index, slot, update)) {
+                        return valueOf(slot);
+                    }
+                } else {
+                    // slot belongs to other key, linear probing
+                    break;
+                }
+            }
+        }
+        throw new IllegalStateException("Map is full, capacity: " + slots.length());
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private int indexFor(int key) {
+        // spread bits (same mixing constant as in ThreadLocalRandom / HashMap-like maps)
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static void checkKey(int key) {
+        if (key == NO_KEY) {
+            throw new IllegalArgumentException("Key " + NO_KEY + " is reserved");
+        }
+    }
+
+    private static long pack(int key, int value) {
+        return ((long) key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    private static int keyOf(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    private static int valueOf(long slot) {
+        return (int) slot;
+    }
+
+}
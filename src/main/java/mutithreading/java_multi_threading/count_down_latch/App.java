@@ -1,8 +1,9 @@
 package mutithreading.java_multi_threading.count_down_latch;
 
+import mutithreading.metrics.InstrumentedExecutors;
+
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 // Problems with synchronization
 class Processor implements Runnable {
@@ -37,7 +38,8 @@ public class App {
         // count down for time you specified
         // let one or more thread wait until latch reach count of 0
         CountDownLatch latch = new CountDownLatch(3);
-        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        // sampleEvery = 1: only 3 tasks, time every one of them
+        ExecutorService executorService = InstrumentedExecutors.newFixedThreadPool("count-down-latch-app", 3, 1);
         for (int i = 0; i < 3; i++) {
             // submit accepts Runnable and Callable
             executorService.submit(new Processor(latch));
@@ -50,6 +52,7 @@ public class App {
         }
         System.out.println("Completed");
         executorService.shutdown();
+        System.out.println(InstrumentedExecutors.snapshot());
     }
 
 }
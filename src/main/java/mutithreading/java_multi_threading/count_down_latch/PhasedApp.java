@@ -0,0 +1,44 @@
+package mutithreading.java_multi_threading.count_down_latch;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class PhasedApp {
+
+    // App with a CountDownLatch generalized to several stages: load -> process -> store.
+    // No new latch and no new threads per stage, every worker waits on the phaser barrier.
+    public static void main(String[] args) throws InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int partiesPerPhaser = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        StagedExecutionEngine.Stage load = workerId -> sleep(10, 30);
+        StagedExecutionEngine.Stage process = workerId -> {
+            // every 10th worker is a straggler
+            if (workerId % 10 == 0) {
+                sleep(80, 100);
+            } else {
+                sleep(20, 40);
+            }
+        };
+        StagedExecutionEngine.Stage store = workerId -> sleep(5, 15);
+
+        StagedExecutionEngine engine = new StagedExecutionEngine(Arrays.asList(load, process, store),
+                stage -> System.out.println("Stage " + stage + " completed"), partiesPerPhaser);
+
+        for (int i = 0; i < workers; i++) {
+            engine.addWorker();
+        }
+        engine.start();
+        // dynamic registration: late worker joins whatever stage is running
+        Thread.sleep(50);
+        System.out.println("Late worker " + engine.addWorker() + " joined");
+        engine.awaitCompletion();
+        System.out.println("Completed");
+        System.out.print(engine.report());
+    }
+
+    private static void sleep(int minMillis, int maxMillis) throws InterruptedException {
+        Thread.sleep(ThreadLocalRandom.current().nextInt(minMillis, maxMillis));
+    }
+
+}
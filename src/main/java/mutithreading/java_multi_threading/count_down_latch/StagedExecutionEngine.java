@@ -0,0 +1,170 @@
+package mutithreading.java_multi_threading.count_down_latch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class StagedExecutionEngine {
+
+    // CountDownLatch can be used only once: every phase of a batch job needs a new latch and new threads.
+    // Phaser is a reusable barrier: phase 0 = stage 0, phase 1 = stage 1 ...
+    // Workers can register at any time and join the current stage.
+    //
+    // Phasers are tiered: workers register with a leaf phaser of at most partiesPerPhaser parties,
+    // leaf phasers register with the root. Arrivals contend only on their own leaf,
+    // the root sees one arrival per leaf - this keeps barriers cheap with hundreds of parties.
+    // The root's onAdvance runs the barrier action between stages and records the statistics.
+
+    public interface Stage {
+        // the part of the stage done by one worker
+        void run(int workerId) throws Exception;
+    }
+
+    public interface BarrierAction {
+        // called once, after every worker finished the stage and before the next one starts.
+        // Runs inside the phaser advance: calling addWorker() from here would block forever.
+        void onStageCompleted(int stage);
+    }
+
+    private final List<Stage> stages;
+    private final BarrierAction barrierAction;
+    private final int partiesPerPhaser;
+    private final Phaser root;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger workerIds = new AtomicInteger();
+    // workers added before start(), they all begin with stage 0
+    private final List<Runnable> pending = new ArrayList<>();
+    private Phaser leaf;
+    private int leafParties;
+    private boolean started;
+
+    // statistics, index = stage
+    private final long[] stageWallNanos;
+    private final AtomicLongArray firstArrival;
+    private final AtomicLongArray lastArrival;
+    private final AtomicLongArray lastWorker;
+    private final AtomicLongArray failures;
+    private volatile long stageStartNanos;
+
+    public StagedExecutionEngine(List<Stage> stages, BarrierAction barrierAction, int partiesPerPhaser) {
+        if (stages.isEmpty() || partiesPerPhaser < 1) {
+            throw new IllegalArgumentException("Need at least one stage and one party per phaser");
+        }
+        this.stages = new ArrayList<>(stages);
+        this.barrierAction = barrierAction;
+        this.partiesPerPhaser = partiesPerPhaser;
+        int count = stages.size();
+        this.stageWallNanos = new long[count];
+        this.firstArrival = new AtomicLongArray(count);
+        this.lastArrival = new AtomicLongArray(count);
+        this.lastWorker = new AtomicLongArray(count);
+        this.failures = new AtomicLongArray(count);
+        for (int i = 0; i < count; i++) {
+            firstArrival.set(i, Long.MAX_VALUE);
+            lastArrival.set(i, Long.MIN_VALUE);
+        }
+        this.root = new Phaser() {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                long now = System.nanoTime();
+                stageWallNanos[phase] = now - stageStartNanos;
+                if (barrierAction != null) {
+                    barrierAction.onStageCompleted(phase);
+                }
+                stageStartNanos = System.nanoTime();
+                // true = terminate after last stage, or when every worker left
+                return phase + 1 >= StagedExecutionEngine.this.stages.size() || registeredParties == 0;
+            }
+        };
+    }
+
+    // Before start(): worker begins with stage 0. After start(): worker joins the current stage.
+    public synchronized int addWorker() {
+        if (root.isTerminated()) {
+            throw new IllegalStateException("All stages are already completed");
+        }
+        if (leaf == null || leafParties == partiesPerPhaser) {
+            leaf = new Phaser(root);
+            leafParties = 0;
+        }
+        final Phaser workerPhaser = leaf;
+        leafParties++;
+        final int startPhase = workerPhaser.register();
+        final int workerId = workerIds.getAndIncrement();
+        Runnable worker = () -> runWorker(workerId, workerPhaser, startPhase);
+        if (started) {
+            executor.execute(worker);
+        } else {
+            pending.add(worker);
+        }
+        return workerId;
+    }
+
+    public synchronized void start() {
+        if (workerIds.get() == 0) {
+            // root phaser without parties never advances, awaitCompletion() would block forever
+            throw new IllegalStateException("No workers added before start()");
+        }
+        started = true;
+        stageStartNanos = System.nanoTime();
+        for (Runnable worker : pending) {
+            executor.execute(worker);
+        }
+        pending.clear();
+    }
+
+    public void awaitCompletion() throws InterruptedException {
+        while (!root.isTerminated()) {
+            root.awaitAdvanceInterruptibly(root.getPhase());
+        }
+        executor.shutdown();
+    }
+
+    private void runWorker(int workerId, Phaser phaser, int startPhase) {
+        int phase = startPhase;
+        while (phase >= 0 && phase < stages.size()) {
+            try {
+                stages.get(phase).run(workerId);
+            } catch (Exception e) {
+                // still arrive, otherwise the barrier would wait for this worker forever
+                failures.incrementAndGet(phase);
+                e.printStackTrace();
+            }
+            recordArrival(phase, workerId);
+            phase = phaser.arriveAndAwaitAdvance();
+        }
+    }
+
+    private void recordArrival(int stage, int workerId) {
+        long now = System.nanoTime();
+        long first;
+        while (now < (first = firstArrival.get(stage)) && !firstArrival.compareAndSet(stage, first, now)) {
+            // retry
+        }
+        long last;
+        while (now > (last = lastArrival.get(stage))) {
+            if (lastArrival.compareAndSet(stage, last, now)) {
+                lastWorker.set(stage, workerId);
+                break;
+            }
+        }
+    }
+
+    // wall time = stage start until the last worker arrived,
+    // straggler gap = first arrival until last arrival (time the fast workers spent waiting)
+    public String report() {
+        StringBuilder builder = new StringBuilder();
+        for (int stage = 0; stage < stages.size(); stage++) {
+            long gap = lastArrival.get(stage) - firstArrival.get(stage);
+            builder.append(String.format("stage %d: wall time: %.1f ms, straggler gap: %.1f ms, slowest worker: %d, failures: %d%n",
+                    stage, stageWallNanos[stage] / 1e6, Math.max(0, gap) / 1e6, lastWorker.get(stage),
+                    failures.get(stage)));
+        }
+        return builder.toString();
+    }
+
+}
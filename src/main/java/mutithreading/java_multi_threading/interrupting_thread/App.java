@@ -1,38 +1,81 @@
 package mutithreading.java_multi_threading.interrupting_thread;
 
+import mutithreading.cancellation.CancellableCallable;
+import mutithreading.cancellation.CancellableFutureTask;
+import mutithreading.cancellation.Cancellables;
+import mutithreading.cancellation.CancellationToken;
+import mutithreading.cancellation.Checkpoint;
+import mutithreading.logging.AsyncLog;
+
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class App {
 
     public static void main(String[] args) throws InterruptedException {
-        System.out.println("Starting");
+        AsyncLog.println("Starting");
         Thread t1 = new Thread(new Runnable() {
             @Override
             public void run() {
                 Random random = new Random();
+                // Thread.sleep(1) in every iteration was only there to notice the interrupt.
+                // Checkpoint looks at the interrupt flag every 1024 iterations instead,
+                // the loop itself neither sleeps nor throws.
+                Checkpoint checkpoint = new Checkpoint(new CancellationToken(), 1024);
+                double sum = 0;
                 for (int i = 0; i < 1E8; i++) {
-                    try {
-                        Thread.sleep(1);
-                    } catch (InterruptedException e) {
-                        System.out.println("Interrupted");
+                    if (checkpoint.shouldStop()) {
+                        AsyncLog.println("Interrupted after " + i + " iterations");
                         break;
                     }
-
-                    System.out.println(Math.sin(random.nextDouble()));
+                    sum += Math.sin(random.nextDouble());
                 }
+                AsyncLog.println("Sum: " + sum);
             }
         });
 
         t1.start();
-        Thread.sleep(5000);
+        Thread.sleep(500);
      /*   Scanner scanner = new Scanner(System.in);
         scanner.nextLine();
 */
-        System.out.println("Interrupted is about to be called soon");
+        AsyncLog.println("Interrupted is about to be called soon");
         t1.interrupt();
         t1.join();
-        System.out.println("Finished");
+
+        // Same loop in an executor: stopped by Future.cancel or by a deadline
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CancellableCallable<Double> sinLoop = new CancellableCallable<Double>() {
+            @Override
+            public Double call(CancellationToken token) {
+                Random random = new Random();
+                Checkpoint checkpoint = new Checkpoint(token, 1024);
+                double sum = 0;
+                for (int i = 0; i < 1E8 && !checkpoint.shouldStop(); i++) {
+                    sum += Math.sin(random.nextDouble());
+                }
+                return sum;
+            }
+        };
+
+        CancellableFutureTask<Double> cancelled = Cancellables.submit(executor, sinLoop);
+        CancellableFutureTask<Double> withDeadline = Cancellables.submit(executor, sinLoop, 200, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        cancelled.cancel(false); // no interrupt needed, the token stops the loop
+        try {
+            AsyncLog.println("Result: " + withDeadline.get());
+        } catch (ExecutionException e) {
+            AsyncLog.println("Deadline exceeded: " + withDeadline.isDeadlineExceeded() + " - " + e.getCause());
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        AsyncLog.println("Stopped " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms after cancel");
+        AsyncLog.println("Finished");
     }
 
 }
@@ -1,16 +1,15 @@
 package mutithreading.java_multi_threading.locks;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import mutithreading.counters.Counter;
+import mutithreading.counters.CounterType;
 
 public class App {
-    public static int counter = 0;
-    private static Lock lock = new ReentrantLock();
+    // REENTRANT_LOCK by default, other backends with -Dcounter.type=SYNCHRONIZED|ATOMIC|PADDED_ATOMIC|STRIPED
+    private static Counter counter = CounterType.fromSystemProperty(CounterType.REENTRANT_LOCK);
 
     public static void increment() {
-        lock.lock();
-        counter++;
-        lock.unlock();
+        // LockCounter: lock.lock(); count++; lock.unlock() in finally block
+        counter.increment();
     }
 
     public static void main(String[] args) {
@@ -41,6 +40,6 @@ public class App {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
-        System.out.println("Counter: " + counter);
+        System.out.println("Counter: " + counter.get());
     }
 }
@@ -0,0 +1,105 @@
+package mutithreading.java_multi_threading.multiple_locks_using_synchronized_code_blocks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ForkJoinWorker {
+
+    // Same two stage process as Worker, without lock1/lock2:
+    // the iterations are split into ranges, every leaf task appends into its own IntLists,
+    // and the lists are concatenated when the tasks are joined.
+    // Idle pool threads steal the forked halves, so the work spreads over all workers.
+
+    private static final int THRESHOLD = 16;
+
+    private final ForkJoinPool pool;
+    private IntList list1 = new IntList(0);
+    private IntList list2 = new IntList(0);
+
+    public ForkJoinWorker(int workers) {
+        this.pool = new ForkJoinPool(workers);
+    }
+
+    static class Result {
+        final IntList list1;
+        final IntList list2;
+
+        Result(IntList list1, IntList list2) {
+            this.list1 = list1;
+            this.list2 = list2;
+        }
+    }
+
+    static class StageTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        StageTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= THRESHOLD) {
+                IntList buffer1 = new IntList(to - from);
+                IntList buffer2 = new IntList(to - from);
+                for (int i = from; i < to; i++) {
+                    stageOne(buffer1);
+                    stageTwo(buffer2);
+                }
+                return new Result(buffer1, buffer2);
+            }
+            int middle = (from + to) >>> 1;
+            StageTask left = new StageTask(from, middle);
+            left.fork();
+            Result right = new StageTask(middle, to).compute();
+            Result result = left.join();
+            // keep iteration order: left part first
+            result.list1.addAll(right.list1);
+            result.list2.addAll(right.list2);
+            return result;
+        }
+    }
+
+    static void stageOne(IntList buffer) {
+        simulateWork();
+        buffer.add(ThreadLocalRandom.current().nextInt(100));
+    }
+
+    static void stageTwo(IntList buffer) {
+        simulateWork();
+        buffer.add(ThreadLocalRandom.current().nextInt(100));
+    }
+
+    // same 1 ms as Worker.stageOne/stageTwo
+    private static void simulateWork() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void process(int iterations) {
+        Result result = pool.invoke(new StageTask(0, iterations));
+        list1.addAll(result.list1);
+        list2.addAll(result.list2);
+    }
+
+    public IntList getList1() {
+        return list1;
+    }
+
+    public IntList getList2() {
+        return list2;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+}
@@ -0,0 +1,60 @@
+package mutithreading.java_multi_threading.multiple_locks_using_synchronized_code_blocks;
+
+public class SpeedupHarness {
+
+    // Same number of iterations for 1 .. N workers:
+    // lock based Worker shared by N threads vs ForkJoinWorker with N pool threads
+    // java mutithreading.java_multi_threading.multiple_locks_using_synchronized_code_blocks.SpeedupHarness [iterations] [maxWorkers]
+
+    public static void main(String[] args) throws InterruptedException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxWorkers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long baseline = runLocked(iterations, 1);
+        System.out.printf("baseline: lock based, 1 thread: %d ms%n", baseline);
+        for (int workers = 1; ; workers = Math.min(workers * 2, maxWorkers)) {
+            long locked = runLocked(iterations, workers);
+            long forkJoin = runForkJoin(iterations, workers);
+            System.out.printf("workers: %3d  lock based: %6d ms (x%.2f)  fork/join: %6d ms (x%.2f)%n",
+                    workers, locked, (double) baseline / locked, forkJoin, (double) baseline / forkJoin);
+            if (workers == maxWorkers) {
+                break;
+            }
+        }
+    }
+
+    private static long runLocked(int iterations, int threads) throws InterruptedException {
+        final Worker worker = new Worker();
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            // spread the iterations, first threads take the remainder
+            final int share = iterations / threads + (i < iterations % threads ? 1 : 0);
+            workers[i] = new Thread(() -> worker.process(share));
+            workers[i].start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        check(worker.size1(), worker.size2(), iterations);
+        return millis;
+    }
+
+    private static long runForkJoin(int iterations, int workers) {
+        ForkJoinWorker worker = new ForkJoinWorker(workers);
+        long start = System.nanoTime();
+        worker.process(iterations);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        worker.shutdown();
+        check(worker.getList1().size(), worker.getList2().size(), iterations);
+        return millis;
+    }
+
+    private static void check(int size1, int size2, int iterations) {
+        if (size1 != iterations || size2 != iterations) {
+            throw new IllegalStateException("Expected " + iterations + " elements, got " + size1 + " and " + size2);
+        }
+    }
+
+}
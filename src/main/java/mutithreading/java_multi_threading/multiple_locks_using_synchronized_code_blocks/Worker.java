@@ -35,22 +35,44 @@ public class Worker {
     }
 
     public void process() {
-        for (int i = 0; i < 1000; i++) {
+        process(1000);
+    }
+
+    public void process(int iterations) {
+        for (int i = 0; i < iterations; i++) {
             stageOne();
             stageTwo();
         }
     }
 
+    public int size1() {
+        synchronized (lock1) {
+            return list1.size();
+        }
+    }
+
+    public int size2() {
+        synchronized (lock2) {
+            return list2.size();
+        }
+    }
+
     public static void main(String[] args) {
+        // Both threads share one Worker, so they compete for lock1 and lock2.
+        // Two locks: one thread can be in stageOne while the other is in stageTwo (~2 s instead of ~4 s)
+        final Worker worker = new Worker();
         long start = System.currentTimeMillis();
         Thread t1 = new Thread(() -> {
-            new Worker().process();
+            worker.process();
         });
 
         Thread t2 = new Thread(() -> {
-            new Worker().process();
+            worker.process();
         });
 
+        t1.start();
+        t2.start();
+
         try {
             t1.join();
             t2.join();
@@ -58,6 +80,8 @@ public class Worker {
             e.printStackTrace();
         }
         long end = System.currentTimeMillis();
+        System.out.println("Time taken: " + (end - start) + " ms");
+        System.out.println("List1: " + worker.size1() + ", List2: " + worker.size2());
     }
 
 }
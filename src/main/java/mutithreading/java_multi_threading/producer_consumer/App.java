@@ -1,5 +1,7 @@
 package mutithreading.java_multi_threading.producer_consumer;
 
+import mutithreading.logging.AsyncLog;
+
 import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -11,6 +13,8 @@ public class App {
 
     public static void main(String[] args) {
         Processor processor = new Processor();
+        // Lock-free drop-in replacement with the same produce/consume:
+        // RingBufferProcessor processor = new RingBufferProcessor();
         Thread t1 = new Thread(new Runnable() {
             @Override
             public void run() {
@@ -66,7 +70,7 @@ public class App {
             Thread.sleep(100);
             if (random.nextInt(10) == 0) {
                 Integer value = queue.take();
-                System.out.println("Taken value: " + value + ". Queue size is: " + queue.size());
+                AsyncLog.println("Taken value: " + value + ". Queue size is: " + queue.size());
             }
         }
     }*/
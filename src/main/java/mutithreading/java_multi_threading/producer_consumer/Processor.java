@@ -1,5 +1,7 @@
 package mutithreading.java_multi_threading.producer_consumer;
 
+import mutithreading.logging.AsyncLog;
+
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
@@ -27,16 +29,19 @@ public class Processor {
     public void consume() throws InterruptedException {
         Random random = new Random();
         while (true) {
+            int size;
+            int value;
             synchronized (lock) {
                 while (list.size() == 0) {
                     // If we have nothing to take from list wait
                     lock.wait();
                 }
-                System.out.println("List size is: " + list.size());
-                int value = list.removeFirst();
-                System.out.println("Value is: " + value);
+                size = list.size();
+                value = list.removeFirst();
                 lock.notify();
             }
+            AsyncLog.println("List size is: " + size);
+            AsyncLog.println("Value is: " + value);
             Thread.sleep(random.nextInt(1000));
         }
     }
@@ -0,0 +1,148 @@
+package mutithreading.java_multi_threading.producer_consumer;
+
+import mutithreading.ring_buffer.IntRingBuffer;
+import mutithreading.ring_buffer.WaitStrategies;
+
+import java.util.LinkedList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+public class ProducerConsumerBenchmark {
+
+    // One producer, N consumers, same hand-off as Processor without printing and sleeping.
+    // java mutithreading.java_multi_threading.producer_consumer.ProducerConsumerBenchmark [consumers] [items]
+    // Busy spin only makes sense with a free core for every producer and consumer thread
+
+    private static final int CAPACITY = 1024;
+    private static final int POISON = -1;
+
+    interface IntQueue {
+        void put(int value) throws InterruptedException;
+
+        int take() throws InterruptedException;
+    }
+
+    // Same algorithm as Processor: LinkedList + single monitor + notify
+    static class MonitorQueue implements IntQueue {
+        private final LinkedList<Integer> list = new LinkedList<>();
+        private final Object lock = new Object();
+
+        @Override
+        public void put(int value) throws InterruptedException {
+            synchronized (lock) {
+                while (list.size() == CAPACITY) {
+                    lock.wait();
+                }
+                list.add(value);
+                lock.notify();
+            }
+        }
+
+        @Override
+        public int take() throws InterruptedException {
+            synchronized (lock) {
+                while (list.size() == 0) {
+                    lock.wait();
+                }
+                int value = list.removeFirst();
+                lock.notify();
+                return value;
+            }
+        }
+    }
+
+    static class BlockingIntQueue implements IntQueue {
+        private final BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(CAPACITY);
+
+        @Override
+        public void put(int value) throws InterruptedException {
+            queue.put(value);
+        }
+
+        @Override
+        public int take() throws InterruptedException {
+            return queue.take();
+        }
+    }
+
+    static class RingQueue implements IntQueue {
+        private final IntRingBuffer buffer;
+
+        RingQueue(String waitStrategy) {
+            this.buffer = new IntRingBuffer(CAPACITY, WaitStrategies.fromName(waitStrategy));
+        }
+
+        @Override
+        public void put(int value) throws InterruptedException {
+            buffer.put(value);
+        }
+
+        @Override
+        public int take() throws InterruptedException {
+            return buffer.take();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int consumers = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            // first round is warm up
+            System.out.println(round == 0 ? "Warm up" : "Round " + round);
+            report("LinkedList wait/notify", new MonitorQueue(), consumers, items);
+            report("ArrayBlockingQueue", new BlockingIntQueue(), consumers, items);
+            report("IntRingBuffer spin", new RingQueue("spin"), consumers, items);
+            report("IntRingBuffer yield", new RingQueue("yield"), consumers, items);
+            report("IntRingBuffer park", new RingQueue("park"), consumers, items);
+        }
+    }
+
+    private static void report(String name, IntQueue queue, int consumers, int items) throws InterruptedException {
+        long nanos = run(queue, consumers, items);
+        System.out.printf("%-25s %10.1f items/ms%n", name, items / (nanos / 1_000_000.0));
+    }
+
+    private static long run(final IntQueue queue, int consumers, final int items) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(consumers);
+        final long[] sums = new long[consumers];
+        for (int i = 0; i < consumers; i++) {
+            final int consumer = i;
+            new Thread(() -> {
+                try {
+                    long sum = 0;
+                    int value;
+                    while ((value = queue.take()) != POISON) {
+                        sum += value;
+                    }
+                    sums[consumer] = sum;
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < items; i++) {
+            queue.put(i);
+        }
+        for (int i = 0; i < consumers; i++) {
+            queue.put(POISON);
+        }
+        done.await();
+        long nanos = System.nanoTime() - start;
+
+        long total = 0;
+        for (long sum : sums) {
+            total += sum;
+        }
+        if (total != (long) items * (items - 1) / 2) {
+            throw new IllegalStateException("Lost or duplicated items, sum: " + total);
+        }
+        return nanos;
+    }
+
+}
@@ -0,0 +1,46 @@
+package mutithreading.java_multi_threading.producer_consumer;
+
+import mutithreading.logging.AsyncLog;
+import mutithreading.ring_buffer.IntRingBuffer;
+import mutithreading.ring_buffer.WaitStrategies;
+import mutithreading.ring_buffer.WaitStrategy;
+
+import java.util.Random;
+
+public class RingBufferProcessor {
+
+    // Drop-in replacement for Processor: same produce/consume, but no lock, no wait/notify,
+    // no Integer boxing and no LinkedList node per element.
+    // One thread may call produce, any number of threads may call consume.
+
+    private final int LIMIT = 16; // power of 2 for ring buffer index masking
+    private final IntRingBuffer buffer;
+
+    public RingBufferProcessor() {
+        this(WaitStrategies.fromName(System.getProperty("ring.buffer.wait", "park")));
+    }
+
+    public RingBufferProcessor(WaitStrategy waitStrategy) {
+        this.buffer = new IntRingBuffer(LIMIT, waitStrategy);
+    }
+
+    public void produce() throws InterruptedException {
+        int value = 0;
+        while (true) {
+            // waits when buffer is full
+            buffer.put(value++);
+        }
+    }
+
+    public void consume() throws InterruptedException {
+        Random random = new Random();
+        while (true) {
+            // waits when buffer is empty
+            int value = buffer.take();
+            AsyncLog.println("List size is: " + buffer.size());
+            AsyncLog.println("Value is: " + value);
+            Thread.sleep(random.nextInt(1000));
+        }
+    }
+
+}
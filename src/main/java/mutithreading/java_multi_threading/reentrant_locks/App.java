@@ -1,5 +1,8 @@
 package mutithreading.java_multi_threading.reentrant_locks;
 
+import mutithreading.metrics.InstrumentedLock;
+import mutithreading.watchdog.DeadlockWatchdog;
+
 public class App {
 
     public static void main(String[] args) {
@@ -26,6 +29,8 @@ public class App {
             }
         });
 
+        // Runner.firstThread awaits without timeout - if the signal never comes the watchdog reports the stall
+        DeadlockWatchdog watchdog = DeadlockWatchdog.fromSystemProperties().watch(t1, t2).start();
         t1.start();
         t2.start();
 
@@ -35,8 +40,11 @@ public class App {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        watchdog.close();
 
         runner.finished();
+        // hold time of the second thread includes waiting for the return key
+        System.out.print(InstrumentedLock.report(5));
 
     }
 
@@ -1,16 +1,18 @@
 package mutithreading.java_multi_threading.reentrant_locks;
 
+import mutithreading.metrics.InstrumentedLock;
+
 import java.util.Scanner;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class Runner {
 
     // Alternative to synchronized
 
     private int count = 0;
-    private Lock lock = new ReentrantLock();
+    // ReentrantLock with wait / hold time and queue length statistics, see InstrumentedLock.report()
+    private Lock lock = new InstrumentedLock("reentrant-locks-runner");
     private Condition cond = lock.newCondition(); // something like wait and notify
 
     private void increment() {
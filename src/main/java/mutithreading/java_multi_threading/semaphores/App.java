@@ -1,18 +1,28 @@
 package mutithreading.java_multi_threading.semaphores;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 public class App {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+
+        ExecutorService executor = Executors.newCachedThreadPool();
 
-        Thread t1 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                Connection connection = null;
-                connection.getInstance().connect();
-            }
-        });
+        // 30 threads, 10 connections - the rest waits on the pool
+        for (int i = 0; i < 30; i++) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Connection.getInstance().connect();
+                }
+            });
+        }
 
-        t1.start();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.DAYS);
+        System.out.println(Connection.getInstance().stats());
 
     }
 
@@ -1,16 +1,47 @@
 package mutithreading.java_multi_threading.semaphores;
 
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Connection {
 
     private static Connection instance = new Connection();
     // limit number of connections at given time
-    private Semaphore semaphore = new Semaphore(10);
-    private int connections = 0;
+    // ObjectPool uses Semaphore(MAX_CONNECTIONS) internally and reuses the connections
+    private static final int MIN_CONNECTIONS = 2;
+    private static final int MAX_CONNECTIONS = 10;
+    private static final long CONNECT_TIMEOUT_MILLIS = 5000;
+    private final ObjectPool<SimulatedConnection> pool;
+
+    // Stands for a real (expensive to open) database or socket connection
+    static class SimulatedConnection {
+        private static final AtomicInteger ids = new AtomicInteger();
+        final int id = ids.incrementAndGet();
+        volatile boolean open = true;
+    }
 
     private Connection() {
+        try {
+            pool = new ObjectPool<>(new PooledObjectFactory<SimulatedConnection>() {
+                @Override
+                public SimulatedConnection create() {
+                    return new SimulatedConnection();
+                }
 
+                @Override
+                public boolean validate(SimulatedConnection connection) {
+                    return connection.open;
+                }
+
+                @Override
+                public void destroy(SimulatedConnection connection) {
+                    connection.open = false;
+                }
+            }, MIN_CONNECTIONS, MAX_CONNECTIONS, 30, TimeUnit.SECONDS, true);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public static Connection getInstance() {
@@ -18,31 +49,31 @@ public class Connection {
     }
 
     public void connect() {
+        SimulatedConnection connection;
         try {
-            semaphore.acquire();
-        } catch (InterruptedException e) {
+            connection = pool.borrow(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | TimeoutException e) {
             e.printStackTrace();
+            return;
         }
         try {
-            doConnect();
+            doConnect(connection);
         } finally {
-            semaphore.release();
+            pool.release(connection);
         }
     }
 
-    public void doConnect() {
-        synchronized (this) {
-            connections++;
-            System.out.println("Current connections: " + connections);
-        }
+    public void doConnect(SimulatedConnection connection) {
+        System.out.println("Current connections: " + pool.getBorrowed() + ", using connection " + connection.id);
         try {
             Thread.sleep(2000);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
-        synchronized (this) {
-            connections--;
-        }
+    }
+
+    public String stats() {
+        return pool.stats();
     }
 
 }
@@ -0,0 +1,240 @@
+package mutithreading.java_multi_threading.semaphores;
+
+import mutithreading.metrics.LatencyHistogram;
+
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ObjectPool<T> implements AutoCloseable {
+
+    // Semaphore(maxSize) still limits how many objects are borrowed at the same time,
+    // but objects are now created lazily, reused, validated on borrow and closed when idle.
+    // fair = true: waiting threads get objects in FIFO order (less throughput, no starvation)
+    // Idle objects are kept in LIFO order, so the most recently used (warm) object is borrowed
+    // first and the ones at the other end can time out and be evicted.
+
+    private final PooledObjectFactory<T> factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<IdleObject<T>> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicInteger peakBorrowed = new AtomicInteger();
+    // integral of the borrowed count over time, for time-weighted utilization
+    private final Object usageLock = new Object();
+    private final long startNanos = System.nanoTime();
+    private long borrowedNanos;
+    private long lastChangeNanos = startNanos;
+
+    private static class IdleObject<T> {
+        final T object;
+        final long idleSinceNanos = System.nanoTime();
+
+        IdleObject(T object) {
+            this.object = object;
+        }
+    }
+
+    public ObjectPool(PooledObjectFactory<T> factory, int minSize, int maxSize,
+                      long idleTimeout, TimeUnit unit, boolean fair) throws Exception {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size min: " + minSize + ", max: " + maxSize);
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.permits = new Semaphore(maxSize, fair);
+        for (int i = 0; i < minSize; i++) {
+            idle.offerFirst(new IdleObject<>(factory.create()));
+            created.incrementAndGet();
+        }
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeoutNanos / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public T borrow(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        long start = System.nanoTime();
+        if (!permits.tryAcquire(timeout, unit)) {
+            timeouts.incrementAndGet();
+            acquireWait.record(System.nanoTime() - start);
+            throw new TimeoutException("No object available within " + timeout + " " + unit);
+        }
+        acquireWait.record(System.nanoTime() - start);
+        try {
+            T object = takeIdleOrCreate();
+            borrows.incrementAndGet();
+            int now = changeBorrowed(1);
+            int peak;
+            while (now > (peak = peakBorrowed.get()) && !peakBorrowed.compareAndSet(peak, now)) {
+                // retry
+            }
+            return object;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(T object) {
+        changeBorrowed(-1);
+        idle.offerFirst(new IdleObject<>(object));
+        permits.release();
+    }
+
+    // Borrowed object is broken, destroy it instead of returning it to the pool
+    public void invalidate(T object) {
+        changeBorrowed(-1);
+        destroy(object);
+        permits.release();
+        scheduleRefill();
+    }
+
+    private int changeBorrowed(int delta) {
+        synchronized (usageLock) {
+            long now = System.nanoTime();
+            borrowedNanos += borrowed.get() * (now - lastChangeNanos);
+            lastChangeNanos = now;
+            return borrowed.addAndGet(delta);
+        }
+    }
+
+    private T takeIdleOrCreate() {
+        IdleObject<T> candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (factory.validate(candidate.object)) {
+                return candidate.object;
+            }
+            invalid.incrementAndGet();
+            destroy(candidate.object);
+        }
+        // we hold a permit, so created never goes above maxSize
+        try {
+            T object = factory.create();
+            created.incrementAndGet();
+            return object;
+        } catch (Exception e) {
+            throw new IllegalStateException("Can not create pooled object", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<IdleObject<T>> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && created.get() > minSize) {
+            IdleObject<T> candidate = oldestFirst.next();
+            if (now - candidate.idleSinceNanos < idleTimeoutNanos) {
+                break;
+            }
+            if (idle.removeLastOccurrence(candidate)) {
+                evicted.incrementAndGet();
+                destroy(candidate.object);
+            }
+        }
+        // eviction stops at minSize, but invalid objects may have taken the pool below it
+        refill();
+    }
+
+    private void scheduleRefill() {
+        try {
+            evictor.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            // closed
+        }
+    }
+
+    // Evictor thread only. Holds a permit while creating, so created still never goes above maxSize.
+    private void refill() {
+        while (created.get() < minSize && permits.tryAcquire()) {
+            try {
+                if (created.get() < minSize) {
+                    idle.offerFirst(new IdleObject<>(factory.create()));
+                    created.incrementAndGet();
+                }
+            } catch (Exception e) {
+                // try again on the next eviction run
+                e.printStackTrace();
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void destroy(T object) {
+        created.decrementAndGet();
+        try {
+            factory.destroy(object);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public LatencyHistogram getAcquireWait() {
+        return acquireWait;
+    }
+
+    public int getCreated() {
+        return created.get();
+    }
+
+    public int getBorrowed() {
+        return borrowed.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    // Average borrowed / maxSize since the pool was created (time-weighted, not a snapshot)
+    public double getUtilization() {
+        synchronized (usageLock) {
+            long now = System.nanoTime();
+            long elapsed = now - startNanos;
+            if (elapsed <= 0) {
+                return 0;
+            }
+            double integral = borrowedNanos + (double) borrowed.get() * (now - lastChangeNanos);
+            return integral / ((double) maxSize * elapsed);
+        }
+    }
+
+    public String stats() {
+        return String.format("max: %d, created: %d, borrowed: %d (peak %d), utilization: %.0f%%, borrows: %d, "
+                        + "timeouts: %d, evicted: %d, invalid: %d%nacquire wait: %s",
+                maxSize, getCreated(), getBorrowed(), peakBorrowed.get(), getUtilization() * 100, borrows.get(),
+                getTimeouts(), evicted.get(), invalid.get(), acquireWait);
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        IdleObject<T> candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            destroy(candidate.object);
+        }
+    }
+
+}
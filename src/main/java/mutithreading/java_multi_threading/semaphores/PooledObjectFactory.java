@@ -0,0 +1,12 @@
+package mutithreading.java_multi_threading.semaphores;
+
+public interface PooledObjectFactory<T> {
+
+    T create() throws Exception;
+
+    // Called on borrow, invalid objects are destroyed and replaced
+    boolean validate(T object);
+
+    void destroy(T object);
+
+}
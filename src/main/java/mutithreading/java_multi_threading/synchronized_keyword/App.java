@@ -1,13 +1,19 @@
 package mutithreading.java_multi_threading.synchronized_keyword;
 
+import mutithreading.counters.Counter;
+import mutithreading.counters.CounterType;
+
 public class App {
 
-    private int count = 0;
+    // SYNCHRONIZED by default, other backends with -Dcounter.type=REENTRANT_LOCK|ATOMIC|PADDED_ATOMIC|STRIPED
+    // see mutithreading.counters.CounterScaling for throughput from 1 to N cores
+    private final Counter count = CounterType.fromSystemProperty(CounterType.SYNCHRONIZED);
 
-    private synchronized void increment() {
+    private void increment() {
         // Every object in Java has intrinsic lock or monitor lock
         // call synchronized object acquire intrinsic lock. Only one thread can acquire intrinsic lock at a time
-        count++;
+        // (SynchronizedCounter.increment is synchronized)
+        count.increment();
     }
 
     public static void main(String[] args) {
@@ -48,7 +54,7 @@ public class App {
             e.printStackTrace();
         }
 
-        System.out.println("Count is: " + count);
+        System.out.println("Count is: " + count.get());
     }
 
 }
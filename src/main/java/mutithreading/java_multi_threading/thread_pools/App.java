@@ -1,7 +1,8 @@
 package mutithreading.java_multi_threading.thread_pools;
 
+import mutithreading.metrics.InstrumentedExecutors;
+
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 // Ways to manage a lot of threads at the same time
@@ -31,7 +32,9 @@ class Processor implements Runnable {
 public class App {
 
     public static void main(String[] args) {
-        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        // Executors.newFixedThreadPool(2) with queue wait / execution time metrics (also in jconsole),
+        // sampleEvery = 1: only 5 tasks, time every one of them
+        ExecutorService executorService = InstrumentedExecutors.newFixedThreadPool("thread-pools-app", 2, 1);
         for (int i = 0; i < 5; i++) {
             executorService.submit(new Processor(i));
         }
@@ -44,6 +47,7 @@ public class App {
             e.printStackTrace();
         }
         System.out.println("All task submitted");
+        System.out.println(InstrumentedExecutors.snapshot());
     }
 
 }
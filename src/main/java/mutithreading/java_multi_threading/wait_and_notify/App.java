@@ -1,5 +1,7 @@
 package mutithreading.java_multi_threading.wait_and_notify;
 
+import mutithreading.watchdog.DeadlockWatchdog;
+
 public class App {
 
     public static void main(String[] args) throws InterruptedException {
@@ -26,10 +28,13 @@ public class App {
             }
         });
 
+        // Processor.produce waits for a signal that depends on the return key, the watchdog reports it when nobody presses it
+        DeadlockWatchdog watchdog = DeadlockWatchdog.fromSystemProperties().watch(t1, t2).start();
         t1.start();
         t2.start();
         t1.join();
         t2.join();
+        watchdog.close();
 
     }
 
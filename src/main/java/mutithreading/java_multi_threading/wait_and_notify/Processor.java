@@ -1,26 +1,28 @@
 package mutithreading.java_multi_threading.wait_and_notify;
 
+import mutithreading.handoff.HandOff;
+
 import java.util.Scanner;
 
 public class Processor {
 
+    // Was synchronized (this) + wait() / notify(). HandOff does not need the monitor:
+    // the producer spins, yields, then parks until the consumer signals (see PingPongBenchmark)
+    private final HandOff handOff = new HandOff();
+
     public void produce() throws InterruptedException {
-        synchronized (this) {
-            System.out.println("Producer thread running ... ");
-            this.wait();
-            System.out.println("Resumed");
-        }
+        System.out.println("Producer thread running ... ");
+        handOff.await();
+        System.out.println("Resumed");
     }
 
     public void consume() throws InterruptedException {
         Scanner scanner = new Scanner(System.in);
         Thread.sleep(2000);
-        synchronized (this) {
-            System.out.println("Waiting for return key");
-            scanner.nextLine();
-            System.out.println("Return key pressed");
-            notify();
-        }
+        System.out.println("Waiting for return key");
+        scanner.nextLine();
+        System.out.println("Return key pressed");
+        handOff.signal();
     }
 
 }
@@ -0,0 +1,131 @@
+package mutithreading.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AdaptiveLimiter {
+
+    // Semaphore whose number of permits is changed by a LimitAlgorithm after every request.
+    // When the limit is used up callers wait at most maxWait - after that the request is
+    // rejected (load shedding) instead of piling up in front of an overloaded backend.
+
+    private final LimitAlgorithm algorithm;
+    private final ReentrantLock lock;
+    private final Condition permitReleased;
+    private int limit;
+    private int inFlight;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AdaptiveLimiter(LimitAlgorithm algorithm, boolean fair) {
+        this.algorithm = algorithm;
+        this.limit = algorithm.getInitialLimit();
+        this.lock = new ReentrantLock(fair);
+        this.permitReleased = lock.newCondition();
+    }
+
+    // -Dlimiter=aimd|gradient
+    public static AdaptiveLimiter fromSystemProperty(int initialLimit, int maxLimit, long latencyThresholdMillis) {
+        String name = System.getProperty("limiter", "gradient");
+        LimitAlgorithm algorithm;
+        switch (name) {
+            case "aimd":
+                algorithm = new AimdLimit(initialLimit, 1, maxLimit, latencyThresholdMillis, TimeUnit.MILLISECONDS);
+                break;
+            case "gradient":
+                algorithm = new GradientLimit(initialLimit, 1, maxLimit);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown limiter: " + name);
+        }
+        return new AdaptiveLimiter(algorithm, true);
+    }
+
+    public class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // request finished, its latency is a sample for the algorithm
+        public void success() {
+            release(false);
+        }
+
+        // request failed or timed out, limit goes down
+        public void dropped() {
+            release(true);
+        }
+
+        private void release(boolean wasDropped) {
+            long rtt = System.nanoTime() - startNanos;
+            lock.lock();
+            try {
+                if (released) {
+                    return;
+                }
+                released = true;
+                inFlight--;
+                limit = algorithm.update(limit, rtt, inFlightAtStart, wasDropped);
+                // limit may have grown by more than one
+                permitReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (wasDropped) {
+                AdaptiveLimiter.this.dropped.incrementAndGet();
+            }
+        }
+    }
+
+    // Returns null when no permit became free within maxWait - caller should shed the request
+    public Permit tryAcquire(long maxWait, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(maxWait);
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                if (nanos <= 0) {
+                    rejected.incrementAndGet();
+                    return null;
+                }
+                nanos = permitReleased.awaitNanos(nanos);
+            }
+            inFlight++;
+            accepted.incrementAndGet();
+            return new Permit(inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String stats() {
+        return String.format("limit: %d, in flight: %d, accepted: %d, rejected: %d, dropped: %d",
+                getLimit(), getInFlight(), accepted.get(), rejected.get(), dropped.get());
+    }
+
+}
@@ -0,0 +1,53 @@
+package mutithreading.limiter;
+
+import java.util.concurrent.TimeUnit;
+
+public class AimdLimit implements LimitAlgorithm {
+
+    // Additive increase / multiplicative decrease, the same control loop as TCP congestion window:
+    // +1 after a fast request that used the whole limit, * backoffRatio after a slow or dropped one.
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThreshold, TimeUnit unit) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, unit, 0.9);
+    }
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThreshold, TimeUnit unit,
+                     double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits: " + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+        this.backoffRatio = backoffRatio;
+    }
+
+    @Override
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        int limit = currentLimit;
+        if (dropped || rttNanos > latencyThresholdNanos) {
+            // requests started above the current limit were slow because of the old limit,
+            // we already backed off for them - otherwise one overload collapses the limit to min
+            if (inFlight <= currentLimit) {
+                limit = (int) (currentLimit * backoffRatio);
+            }
+        } else if (inFlight * 2 >= currentLimit) {
+            // only grow when the limit is actually used, an idle client proves nothing
+            limit = currentLimit + 1;
+        }
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+}
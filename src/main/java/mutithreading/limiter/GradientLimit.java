@@ -0,0 +1,66 @@
+package mutithreading.limiter;
+
+public class GradientLimit implements LimitAlgorithm {
+
+    // TCP Vegas like: minimal latency seen so far is the latency of an idle backend.
+    // gradient = minRtt / currentRtt, 1.0 - no queueing, 0.5 - requests wait as long as they work.
+    // newLimit = limit * gradient + sqrt(limit)  (sqrt(limit) lets the limit probe for more capacity)
+    // The result is smoothed, so a single slow request does not halve the limit.
+    // minRtt is forgotten every resetInterval samples, because backend capacity changes over the day.
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int resetInterval;
+
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples;
+    private double estimatedLimit;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, 0.2, 1000);
+    }
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, int resetInterval) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits: " + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.resetInterval = resetInterval;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    // AdaptiveLimiter calls update under its lock, so no synchronization here
+    @Override
+    public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        if (++samples >= resetInterval) {
+            samples = 0;
+            minRttNanos = rttNanos;
+        }
+        minRttNanos = Math.min(minRttNanos, Math.max(1, rttNanos));
+
+        double newLimit;
+        if (dropped) {
+            newLimit = estimatedLimit / 2;
+        } else if (inFlight * 2 < estimatedLimit) {
+            // app limited, latency says nothing about the backend
+            return currentLimit;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, (double) minRttNanos / rttNanos));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        }
+        estimatedLimit = (1 - smoothing) * estimatedLimit + smoothing * newLimit;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        return (int) estimatedLimit;
+    }
+
+}
@@ -0,0 +1,12 @@
+package mutithreading.limiter;
+
+public interface LimitAlgorithm {
+
+    int getInitialLimit();
+
+    // Called after every request, returns new concurrency limit
+    // rttNanos - how long the request took, inFlight - requests running when it was started,
+    // dropped - request failed or timed out (sign of overload)
+    int update(int currentLimit, long rttNanos, int inFlight, boolean dropped);
+
+}
@@ -0,0 +1,57 @@
+package mutithreading.limiter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LimiterSimulation {
+
+    // Simulated backend: requests take 10 ms while at most `capacity` run at once,
+    // above that every request gets slower (queueing). Capacity changes every 5 seconds,
+    // the limit printed every second should follow it.
+    // java -Dlimiter=aimd|gradient mutithreading.limiter.LimiterSimulation
+
+    private static final int[] CAPACITY_OVER_TIME = {10, 30, 5, 20};
+    private static volatile int capacity = CAPACITY_OVER_TIME[0];
+    private static final AtomicInteger running = new AtomicInteger();
+
+    public static void main(String[] args) throws InterruptedException {
+        final AdaptiveLimiter limiter = AdaptiveLimiter.fromSystemProperty(3, 100, 20);
+        ExecutorService clients = Executors.newFixedThreadPool(100);
+        for (int i = 0; i < 100; i++) {
+            clients.execute(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        AdaptiveLimiter.Permit permit = limiter.tryAcquire(50, TimeUnit.MILLISECONDS);
+                        if (permit == null) {
+                            continue;
+                        }
+                        callBackend();
+                        permit.success();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        for (int second = 0; second < CAPACITY_OVER_TIME.length * 5; second++) {
+            capacity = CAPACITY_OVER_TIME[second / 5];
+            Thread.sleep(1000);
+            System.out.println("backend capacity: " + capacity + ", " + limiter.stats());
+        }
+        clients.shutdownNow();
+    }
+
+    private static void callBackend() throws InterruptedException {
+        int concurrent = running.incrementAndGet();
+        try {
+            double overload = Math.max(1.0, (double) concurrent / capacity);
+            Thread.sleep((long) (10 * overload * overload));
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package mutithreading.logging;
+
+public final class AsyncLog {
+
+    // Shared sink for the demos: AsyncLog.println(...) instead of System.out.println(...)
+    // in loops and critical sections. Configured with -Dlog.file, -Dlog.policy, -Dlog.buffer.
+    // Everything logged is written at JVM exit, flush() when the output is needed earlier
+    // (before System.out is used again, otherwise lines come out of order).
+
+    private static final AsyncLogSink SINK = AsyncLogSink.fromSystemProperties();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SINK::close, "async-log-shutdown"));
+    }
+
+    private AsyncLog() {
+    }
+
+    public static void println(Object message) {
+        SINK.log(message);
+    }
+
+    public static void flush() {
+        SINK.flush();
+    }
+
+    public static long getDropped() {
+        return SINK.getDropped();
+    }
+
+}
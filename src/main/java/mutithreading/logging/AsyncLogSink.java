@@ -0,0 +1,256 @@
+package mutithreading.logging;
+
+import mutithreading.ring_buffer.Sequence;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class AsyncLogSink implements Closeable {
+
+    // System.out.println takes the PrintStream lock and does a write() system call per line,
+    // so threads printing in a loop are serialized by the console, not by the code being demonstrated.
+    //
+    // Here every thread appends to its own single-producer / single-consumer ring (no lock, no CAS),
+    // one writer thread drains all rings and writes whole batches with one channel write.
+    // Lines of one thread keep their order, lines of different threads can be interleaved differently
+    // than they were logged.
+    // Full ring: DROP counts and forgets the line, BLOCK waits for the writer (nothing is lost).
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final OverflowPolicy overflowPolicy;
+    private final int bufferCapacity;
+    private final long idleParkNanos;
+    private final List<ThreadBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadBuffer> localBuffer = new ThreadLocal<>();
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(64 * 1024);
+    private final LongAdder dropped = new LongAdder();
+    private final Sequence flushRequested = new Sequence();
+    private final Sequence flushCompleted = new Sequence();
+    private final Thread writer;
+    private volatile boolean running = true;
+    // writer thread only
+    private boolean failed;
+
+    // Ring of one logging thread. tail is written only by the owner, head only by the writer thread.
+    private static final class ThreadBuffer {
+        final Thread owner;
+        final String[] slots;
+        final int mask;
+        final Sequence head = new Sequence();
+        final Sequence tail = new Sequence();
+
+        ThreadBuffer(Thread owner, int capacity) {
+            this.owner = owner;
+            this.slots = new String[capacity];
+            this.mask = capacity - 1;
+        }
+
+        boolean offer(String message) {
+            long t = tail.get();
+            if (t - head.get() == slots.length) {
+                return false;
+            }
+            slots[(int) t & mask] = message;
+            // publish the slot, writer reads tail before the slot
+            tail.lazySet(t + 1);
+            return true;
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+    }
+
+    public AsyncLogSink(WritableByteChannel channel, int bufferCapacity, OverflowPolicy overflowPolicy,
+                        long idlePark, TimeUnit unit) {
+        this(channel, true, bufferCapacity, overflowPolicy, idlePark, unit);
+    }
+
+    // closeChannel = false for channels the sink does not own (stdout): close() only flushes them
+    public AsyncLogSink(WritableByteChannel channel, boolean closeChannel, int bufferCapacity,
+                        OverflowPolicy overflowPolicy, long idlePark, TimeUnit unit) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + bufferCapacity);
+        }
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.overflowPolicy = overflowPolicy;
+        this.bufferCapacity = Integer.highestOneBit(bufferCapacity * 2 - 1);
+        this.idleParkNanos = unit.toNanos(idlePark);
+        this.writer = new Thread(this::writeLoop, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // stdout by default, -Dlog.file=path appends to a file,
+    // -Dlog.policy=drop|block (default block), -Dlog.buffer=lines per thread (default 1024)
+    public static AsyncLogSink fromSystemProperties() {
+        String file = System.getProperty("log.file");
+        OverflowPolicy policy = OverflowPolicy.valueOf(System.getProperty("log.policy", "block").toUpperCase());
+        int capacity = Integer.getInteger("log.buffer", 1024);
+        WritableByteChannel channel;
+        try {
+            channel = file == null
+                    ? new FileOutputStream(FileDescriptor.out).getChannel()
+                    : FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not open log file " + file, e);
+        }
+        // closing the stdout channel would close fd 1 for the whole JVM (System.out included)
+        return new AsyncLogSink(channel, file != null, capacity, policy, 1, TimeUnit.MILLISECONDS);
+    }
+
+    // Returns false when the line was dropped.
+    // The message is converted to text here, on the caller's thread: the writer must not call
+    // toString() of a (possibly mutable) object later, from another thread, without synchronization.
+    public boolean log(Object message) {
+        String line = String.valueOf(message);
+        ThreadBuffer buffer = localBuffer.get();
+        if (buffer == null) {
+            buffer = new ThreadBuffer(Thread.currentThread(), bufferCapacity);
+            localBuffer.set(buffer);
+            buffers.add(buffer);
+        }
+        if (buffer.offer(line)) {
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP || !running) {
+            dropped.increment();
+            return false;
+        }
+        while (!buffer.offer(line)) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(10_000);
+            if (!running) {
+                dropped.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Waits until everything logged before this call is written
+    public void flush() {
+        long request = flushRequested.incrementAndGet();
+        while (flushCompleted.get() < request && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            if (closeChannel) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            // a pass that starts after a flush request sees everything logged before it
+            long request = flushRequested.get();
+            int drained = 0;
+            for (ThreadBuffer buffer : buffers) {
+                drained += drain(buffer);
+                if (buffer.isEmpty() && !buffer.owner.isAlive()) {
+                    buffers.remove(buffer);
+                }
+            }
+            writeBatch();
+            flushCompleted.set(request);
+            if (drained == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+    }
+
+    private int drain(ThreadBuffer buffer) {
+        long head = buffer.head.get();
+        long tail = buffer.tail.get();
+        for (long i = head; i < tail; i++) {
+            int index = (int) i & buffer.mask;
+            String message = buffer.slots[index];
+            buffer.slots[index] = null;
+            append(message);
+        }
+        buffer.head.lazySet(tail);
+        return (int) (tail - head);
+    }
+
+    private void append(String message) {
+        byte[] bytes = (message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > batch.remaining()) {
+            writeBatch();
+            if (bytes.length > batch.capacity()) {
+                write(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        batch.put(bytes);
+    }
+
+    private void writeBatch() {
+        if (batch.position() == 0) {
+            return;
+        }
+        batch.flip();
+        write(batch);
+        batch.clear();
+    }
+
+    private void write(ByteBuffer bytes) {
+        if (failed) {
+            bytes.position(bytes.limit());
+            return;
+        }
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            // logging must not kill the writer or the logging threads:
+            // report once (closed pipe, full disk...) and discard everything from now on
+            failed = true;
+            e.printStackTrace();
+            bytes.position(bytes.limit());
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package mutithreading.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+public class LoggingBenchmark {
+
+    // N threads log M lines each into a temp file:
+    // PrintStream set up like System.out (autoflush, one write per line, global lock) vs AsyncLogSink.
+    // Time includes flushing everything to the file.
+    // java mutithreading.logging.LoggingBenchmark [threads] [lines per thread]
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        final int lines = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(round == 0 ? "Warm up" : "Round " + round);
+
+            File printFile = File.createTempFile("println", ".log");
+            try (PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(printFile)), true)) {
+                long start = System.nanoTime();
+                run(threads, () -> {
+                    for (int i = 0; i < lines; i++) {
+                        out.println("Value is: " + i);
+                    }
+                });
+                report("PrintStream.println", threads * (long) lines, start);
+            } finally {
+                printFile.delete();
+            }
+
+            File asyncFile = File.createTempFile("async", ".log");
+            AsyncLogSink sink = new AsyncLogSink(FileChannel.open(asyncFile.toPath(), StandardOpenOption.WRITE),
+                    1024, AsyncLogSink.OverflowPolicy.BLOCK, 1, TimeUnit.MILLISECONDS);
+            try {
+                long start = System.nanoTime();
+                run(threads, () -> {
+                    for (int i = 0; i < lines; i++) {
+                        sink.log("Value is: " + i);
+                    }
+                });
+                sink.flush();
+                report("AsyncLogSink.log", threads * (long) lines, start);
+            } finally {
+                sink.close();
+                asyncFile.delete();
+            }
+        }
+    }
+
+    private static void run(int threads, Runnable task) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(task);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static void report(String name, long lines, long startNanos) {
+        double millis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.printf("%-20s %10.1f lines/ms%n", name, lines / millis);
+    }
+
+}
@@ -0,0 +1,110 @@
+package mutithreading.metrics;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ExecutorMetrics implements ExecutorMetricsMBean {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    final LongAdder submitted = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LatencyHistogram queueWait = new LatencyHistogram();
+    final LatencyHistogram execution = new LatencyHistogram();
+
+    ExecutorMetrics(String name, ThreadPoolExecutor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return executor.getLargestPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public double getMeanQueueWaitMicros() {
+        return queueWait.getMean() / 1000.0;
+    }
+
+    @Override
+    public double getP99QueueWaitMicros() {
+        return queueWait.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaxQueueWaitMicros() {
+        return queueWait.getMax() / 1000.0;
+    }
+
+    @Override
+    public double getMeanExecutionMicros() {
+        return execution.getMean() / 1000.0;
+    }
+
+    @Override
+    public double getP99ExecutionMicros() {
+        return execution.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaxExecutionMicros() {
+        return execution.getMax() / 1000.0;
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public LatencyHistogram getExecution() {
+        return execution;
+    }
+
+    public String snapshot() {
+        return String.format("[%s] pool: %d (largest %d), active: %d, queued: %d, submitted: %d, completed: %d, rejected: %d%n"
+                        + "  queue wait: %s%n  execution:  %s",
+                name, getPoolSize(), getLargestPoolSize(), getActiveCount(), getQueueSize(), getSubmittedCount(),
+                getCompletedCount(), getRejectedCount(), queueWait, execution);
+    }
+
+}
@@ -0,0 +1,34 @@
+package mutithreading.metrics;
+
+// Standard MBean, visible in jconsole / VisualVM under mutithreading.metrics:type=Executor
+public interface ExecutorMetricsMBean {
+
+    String getName();
+
+    int getPoolSize();
+
+    int getLargestPoolSize();
+
+    int getActiveCount();
+
+    int getQueueSize();
+
+    long getSubmittedCount();
+
+    long getCompletedCount();
+
+    long getRejectedCount();
+
+    double getMeanQueueWaitMicros();
+
+    double getP99QueueWaitMicros();
+
+    double getMaxQueueWaitMicros();
+
+    double getMeanExecutionMicros();
+
+    double getP99ExecutionMicros();
+
+    double getMaxExecutionMicros();
+
+}
@@ -0,0 +1,145 @@
+package mutithreading.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class InstrumentedExecutors {
+
+    // Same factory methods as Executors, but every pool has a name, records queue wait,
+    // execution time, pool size, rejections and completed tasks, and is registered as MBean
+    // mutithreading.metrics:type=Executor,name=<name>
+
+    private static final Map<String, ExecutorMetrics> POOLS = new ConcurrentHashMap<>();
+    // Default times ~1 of 8 tasks (40-60 ns/task overhead, full timing is over the 100 ns budget),
+    // -Dexecutor.metrics.sample=1 times every task. Pools running a handful of tasks should pass
+    // sampleEvery = 1, otherwise they may not record a single timing.
+    private static final int SAMPLE_EVERY = Integer.getInteger("executor.metrics.sample", 8);
+
+    private InstrumentedExecutors() {
+    }
+
+    public static InstrumentedThreadPoolExecutor newFixedThreadPool(String name, int threads) {
+        return newFixedThreadPool(name, threads, SAMPLE_EVERY);
+    }
+
+    public static InstrumentedThreadPoolExecutor newFixedThreadPool(String name, int threads, int sampleEvery) {
+        return register(new InstrumentedThreadPoolExecutor(name, threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), sampleEvery));
+    }
+
+    public static InstrumentedThreadPoolExecutor newCachedThreadPool(String name) {
+        return newCachedThreadPool(name, SAMPLE_EVERY);
+    }
+
+    public static InstrumentedThreadPoolExecutor newCachedThreadPool(String name, int sampleEvery) {
+        return register(new InstrumentedThreadPoolExecutor(name, 0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), sampleEvery));
+    }
+
+    public static InstrumentedThreadPoolExecutor newSingleThreadExecutor(String name) {
+        return newFixedThreadPool(name, 1);
+    }
+
+    public static ExecutorMetrics getMetrics(String name) {
+        return POOLS.get(name);
+    }
+
+    // A terminated pool is in one more snapshot with its final metrics, then it is dropped
+    public static String snapshot() {
+        StringBuilder builder = new StringBuilder();
+        for (ExecutorMetrics metrics : POOLS.values()) {
+            builder.append(metrics.snapshot()).append(System.lineSeparator());
+            if (metrics.isTerminated()) {
+                POOLS.remove(metrics.getName(), metrics);
+            }
+        }
+        return builder.toString();
+    }
+
+    // Prints snapshot of every pool, stop it with shutdown() of the returned executor
+    public static ScheduledExecutorService startReporter(long period, TimeUnit unit, final PrintStream out) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "executor-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> out.print(snapshot()), period, period, unit);
+        return reporter;
+    }
+
+    private static InstrumentedThreadPoolExecutor register(InstrumentedThreadPoolExecutor executor) {
+        ExecutorMetrics metrics = executor.getMetrics();
+        POOLS.put(metrics.getName(), metrics);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = objectName(metrics);
+            if (server.isRegistered(objectName)) {
+                // pool with the same name created again, newest one wins
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(metrics, objectName);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        return executor;
+    }
+
+    // Called when the pool terminated. Only JMX forgets it right away, snapshot() still reports
+    // the final metrics once. A newer pool with the same name stays registered.
+    static void unregisterMBean(ExecutorMetrics metrics) {
+        if (POOLS.get(metrics.getName()) != metrics) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = objectName(metrics);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static ObjectName objectName(ExecutorMetrics metrics) throws JMException {
+        return new ObjectName("mutithreading.metrics:type=Executor,name=" + ObjectName.quote(metrics.getName()));
+    }
+
+    // Per task overhead: plain vs instrumented single thread pool running empty tasks
+    public static void main(String[] args) throws InterruptedException {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        for (int round = 0; round < 3; round++) {
+            for (int sampleEvery : new int[]{1, 8}) {
+                long plain = run(Executors.newSingleThreadExecutor(), tasks);
+                long instrumented = run(newFixedThreadPool("overhead", 1, sampleEvery), tasks);
+                System.out.printf("sample 1/%d  plain: %.1f ns/task, instrumented: %.1f ns/task, overhead: %.1f ns/task%n",
+                        sampleEvery, (double) plain / tasks, (double) instrumented / tasks,
+                        (double) (instrumented - plain) / tasks);
+            }
+        }
+    }
+
+    private static long run(ExecutorService executor, int tasks) throws InterruptedException {
+        Runnable empty = () -> {
+        };
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(empty);
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,297 @@
+package mutithreading.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class InstrumentedLock extends ReentrantLock {
+
+    // ReentrantLock that reports how contended it is, drop-in for new ReentrantLock().
+    // Uncontended path: tryLock() succeeds, only an exact counter is incremented - no clock read.
+    // Contended path: the thread is going to park anyway, so queue length and wait time are always recorded.
+    // Hold time needs two clock reads, it is measured for 1 of sampleEvery outermost acquisitions.
+    // Time spent in Condition.await() is not counted as hold time.
+    //
+    // Every lock with the same name shares one LockMetrics, report() lists the most contended names.
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, LockMetrics> LOCKS = new ConcurrentHashMap<>();
+    // -Dlock.metrics.sample=1 times every hold (default: ~1 of 16)
+    private static final int SAMPLE_EVERY = Integer.getInteger("lock.metrics.sample", 16);
+
+    private final LockMetrics metrics;
+    private final int sampleEvery;
+    // written and read only by the owner thread while it holds the lock, 0 = this hold is not sampled
+    private long holdStart;
+
+    public InstrumentedLock(String name) {
+        this(name, false);
+    }
+
+    public InstrumentedLock(String name, boolean fair) {
+        this(name, fair, SAMPLE_EVERY);
+    }
+
+    public InstrumentedLock(String name, boolean fair, int sampleEvery) {
+        super(fair);
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be positive: " + sampleEvery);
+        }
+        this.metrics = LOCKS.computeIfAbsent(name, LockMetrics::new);
+        this.sampleEvery = sampleEvery;
+    }
+
+    @Override
+    public void lock() {
+        if (!tryFastPath()) {
+            long start = beforeWait();
+            super.lock();
+            afterWait(start);
+        }
+        onAcquired();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!tryFastPath()) {
+            long start = beforeWait();
+            super.lockInterruptibly();
+            afterWait(start);
+        }
+        onAcquired();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (super.tryLock()) {
+            onAcquired();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!tryFastPath()) {
+            long start = beforeWait();
+            boolean acquired = super.tryLock(timeout, unit);
+            // time out is a wait too
+            afterWait(start);
+            if (!acquired) {
+                return false;
+            }
+        }
+        onAcquired();
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        if (getHoldCount() == 1) {
+            stopHold();
+        }
+        super.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new InstrumentedCondition(super.newCondition());
+    }
+
+    // ReentrantLock only accepts its own ConditionObject here, unwrap ours
+
+    @Override
+    public boolean hasWaiters(Condition condition) {
+        return super.hasWaiters(unwrap(condition));
+    }
+
+    @Override
+    public int getWaitQueueLength(Condition condition) {
+        return super.getWaitQueueLength(unwrap(condition));
+    }
+
+    @Override
+    protected Collection<Thread> getWaitingThreads(Condition condition) {
+        return super.getWaitingThreads(unwrap(condition));
+    }
+
+    private static Condition unwrap(Condition condition) {
+        return condition instanceof InstrumentedCondition ? ((InstrumentedCondition) condition).condition : condition;
+    }
+
+    public LockMetrics getMetrics() {
+        return metrics;
+    }
+
+    public static LockMetrics getMetrics(String name) {
+        return LOCKS.get(name);
+    }
+
+    // Most contended locks first (by total wait time)
+    public static String report(int top) {
+        List<LockMetrics> locks = new ArrayList<>(LOCKS.values());
+        locks.sort(Comparator.comparingLong(LockMetrics::getTotalWaitNanos).reversed()
+                .thenComparing(Comparator.comparingLong(LockMetrics::getContended).reversed()));
+        StringBuilder builder = new StringBuilder();
+        builder.append("Top contended locks at ").append(new Date()).append(System.lineSeparator());
+        for (int i = 0; i < Math.min(top, locks.size()); i++) {
+            builder.append(i + 1).append(". ").append(locks.get(i).snapshot()).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+    private boolean tryFastPath() {
+        // tryLock() barges, a fair lock must not jump over queued threads
+        return (!isFair() || !hasQueuedThreads()) && super.tryLock();
+    }
+
+    private long beforeWait() {
+        metrics.contended.increment();
+        // getQueueLength() walks the wait queue, acceptable as this thread is about to park
+        metrics.queueLength.record(getQueueLength());
+        return System.nanoTime();
+    }
+
+    private void afterWait(long start) {
+        metrics.waitTime.record(System.nanoTime() - start);
+    }
+
+    private void onAcquired() {
+        metrics.acquisitions.increment();
+        if (getHoldCount() == 1) {
+            startHold();
+        }
+    }
+
+    private void startHold() {
+        holdStart = (sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0) ? System.nanoTime() : 0;
+    }
+
+    private void stopHold() {
+        if (holdStart != 0) {
+            metrics.holdTime.record(System.nanoTime() - holdStart);
+            holdStart = 0;
+        }
+    }
+
+    private class InstrumentedCondition implements Condition {
+
+        // await() releases the lock: close the current hold and start a new one after the lock is back
+
+        private final Condition condition;
+
+        InstrumentedCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            stopHold();
+            try {
+                condition.await();
+            } finally {
+                startHold();
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            stopHold();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                startHold();
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            stopHold();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                startHold();
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            stopHold();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                startHold();
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            stopHold();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                startHold();
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+
+    // Overhead per lock()/unlock() pair: plain vs instrumented lock, 1 and 4 threads
+    public static void main(String[] args) throws InterruptedException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        for (int round = 0; round < 3; round++) {
+            for (int threads : new int[]{1, 4}) {
+                long plain = run(new ReentrantLock(), threads, iterations);
+                long instrumented = run(new InstrumentedLock("overhead-" + threads + "-threads"), threads, iterations);
+                System.out.printf("%d thread(s)  plain: %.1f ns/op, instrumented: %.1f ns/op%n", threads,
+                        (double) plain / iterations, (double) instrumented / iterations);
+            }
+        }
+        System.out.print(report(5));
+    }
+
+    private static long run(final Lock lock, int threads, final int iterations) throws InterruptedException {
+        final long[] counter = new long[1];
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Thread(() -> {
+                for (int j = 0; j < iterations / threads; j++) {
+                    lock.lock();
+                    try {
+                        counter[0]++;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,134 @@
+package mutithreading.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    // Lock-free log-linear histogram of nanosecond values (HdrHistogram idea, fixed precision).
+    // Every power of two is split into 16 buckets, so a percentile is off by at most ~6%.
+    // record() is one increment on a bucket, one on the count and one add to the sum, safe from any thread.
+    // Percentiles scan a copy of the buckets; toString() copies them once, so all values it prints
+    // come from the same state.
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        sum.addAndGet(nanos);
+        long currentMax;
+        while (nanos > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, nanos)) {
+                break;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    // percentile 0..100, returns upper bound of the bucket (never more than max)
+    public long getPercentile(double percentile) {
+        long[] buckets = copyBuckets();
+        return percentile(buckets, total(buckets), percentile, max.get());
+    }
+
+    private long[] copyBuckets() {
+        long[] buckets = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counts.get(i);
+        }
+        return buckets;
+    }
+
+    private static long total(long[] buckets) {
+        long total = 0;
+        for (long bucket : buckets) {
+            total += bucket;
+        }
+        return total;
+    }
+
+    private static long percentile(long[] buckets, long total, double percentile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        rank = Math.max(1, Math.min(rank, total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    // Not atomic with concurrent record() calls, some values can be lost
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.set(0);
+        max.set(0);
+    }
+
+    // values in microseconds
+    @Override
+    public String toString() {
+        long[] buckets = copyBuckets();
+        long total = total(buckets);
+        long currentSum = sum.get();
+        long currentMax = max.get();
+        double mean = total == 0 ? 0 : (double) currentSum / total;
+        return String.format("count: %d, mean: %.1f us, p50: %.1f us, p99: %.1f us, p99.9: %.1f us, max: %.1f us",
+                total, mean / 1000.0, percentile(buckets, total, 50, currentMax) / 1000.0,
+                percentile(buckets, total, 99, currentMax) / 1000.0,
+                percentile(buckets, total, 99.9, currentMax) / 1000.0, currentMax / 1000.0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+        if (shift == 63 - SUB_BUCKET_BITS && subBucket == 2 * SUB_BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
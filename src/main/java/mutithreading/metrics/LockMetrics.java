@@ -0,0 +1,62 @@
+package mutithreading.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class LockMetrics {
+
+    // Aggregated over every InstrumentedLock with the same name.
+    // acquisitions and contended are exact, hold time is sampled, wait time and queue length
+    // are recorded for every contended acquisition (uncontended ones wait 0 ns by definition).
+
+    private final String name;
+    final LongAdder acquisitions = new LongAdder();
+    final LongAdder contended = new LongAdder();
+    final LatencyHistogram waitTime = new LatencyHistogram();
+    final LatencyHistogram holdTime = new LatencyHistogram();
+    // not nanoseconds - threads already queued when a thread started to wait
+    final LatencyHistogram queueLength = new LatencyHistogram();
+
+    LockMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContended() {
+        return contended.sum();
+    }
+
+    // nanoseconds all threads together spent waiting for this lock
+    public long getTotalWaitNanos() {
+        return (long) (waitTime.getMean() * waitTime.getCount());
+    }
+
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    public LatencyHistogram getHoldTime() {
+        return holdTime;
+    }
+
+    public LatencyHistogram getQueueLength() {
+        return queueLength;
+    }
+
+    public String snapshot() {
+        long acquired = getAcquisitions();
+        long contendedCount = getContended();
+        return String.format("[%s] acquisitions: %d, contended: %d (%.1f%%), total wait: %.1f ms%n"
+                        + "  wait: %s%n  hold: %s (sampled)%n  queue length: mean %.1f, p99 %d, max %d",
+                name, acquired, contendedCount, acquired == 0 ? 0 : 100.0 * contendedCount / acquired,
+                getTotalWaitNanos() / 1e6, waitTime, holdTime, queueLength.getMean(),
+                queueLength.getPercentile(99), queueLength.getMax());
+    }
+
+}
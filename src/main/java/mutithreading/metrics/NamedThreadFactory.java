@@ -0,0 +1,22 @@
+package mutithreading.metrics;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NamedThreadFactory implements ThreadFactory {
+
+    // Threads called <name>-1, <name>-2 ... instead of pool-3-thread-1, easier to find in thread dumps
+
+    private final String name;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public NamedThreadFactory(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        return new Thread(runnable, name + "-" + counter.incrementAndGet());
+    }
+
+}
@@ -0,0 +1,86 @@
+package mutithreading.ring_buffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class IntRingBuffer {
+
+    // Bounded single producer / multi consumer queue of ints.
+    // Preallocated int[], so no boxing and no node per element.
+    // Every slot has its own sequence number (Dmitry Vyukov's bounded queue):
+    //   slot sequence == position            -> slot is free for the producer
+    //   slot sequence == position + 1        -> slot holds value for consumer
+    //   consumer sets  position + capacity   -> slot free for next lap of the producer
+    // Volatile write of slot sequence publishes the plain write to values[].
+
+    private final int[] values;
+    private final AtomicLongArray slotSequences;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    // only producer thread writes tail, consumers claim head with CAS
+    private final Sequence tail = new Sequence();
+    private final Sequence head = new Sequence();
+
+    public IntRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be power of 2: " + capacity);
+        }
+        this.values = new int[capacity];
+        this.slotSequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < capacity; i++) {
+            slotSequences.set(i, i);
+        }
+    }
+
+    // Single producer only
+    public void put(int value) throws InterruptedException {
+        long position = tail.get();
+        int index = (int) position & mask;
+        while (slotSequences.get(index) != position) {
+            // buffer full, wait for slowest consumer of this slot
+            idle();
+        }
+        values[index] = value;
+        slotSequences.set(index, position + 1);
+        tail.lazySet(position + 1);
+    }
+
+    public int take() throws InterruptedException {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long sequence = slotSequences.get(index);
+            if (sequence == position + 1) {
+                if (head.compareAndSet(position, position + 1)) {
+                    int value = values[index];
+                    slotSequences.lazySet(index, position + values.length);
+                    return value;
+                }
+                // other consumer took this position, try next one right away
+            } else if (sequence <= position) {
+                // buffer empty
+                idle();
+            }
+        }
+    }
+
+    // Approximate while producer and consumers are running
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, values.length));
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    private void idle() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        waitStrategy.idle();
+    }
+
+}
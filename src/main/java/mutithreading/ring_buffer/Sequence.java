@@ -0,0 +1,62 @@
+package mutithreading.ring_buffer;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+// Superclass fields are laid out before subclass fields, so the value is surrounded
+// by 7 longs on each side and never shares a 64 byte cache line with other hot data.
+class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class Value extends LhsPadding {
+    protected volatile long value;
+}
+
+class RhsPadding extends Value {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+public class Sequence extends RhsPadding {
+
+    private static final AtomicLongFieldUpdater<Value> UPDATER =
+            AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    public Sequence() {
+        this(0);
+    }
+
+    public Sequence(long initialValue) {
+        UPDATER.lazySet(this, initialValue);
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    // Store without full fence, other threads see it a bit later
+    public void lazySet(long value) {
+        UPDATER.lazySet(this, value);
+    }
+
+    public boolean compareAndSet(long expected, long update) {
+        return UPDATER.compareAndSet(this, expected, update);
+    }
+
+    public long incrementAndGet() {
+        return UPDATER.incrementAndGet(this);
+    }
+
+    public long addAndGet(long delta) {
+        return UPDATER.addAndGet(this, delta);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+
+}
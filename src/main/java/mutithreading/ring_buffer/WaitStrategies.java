@@ -0,0 +1,53 @@
+package mutithreading.ring_buffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+public final class WaitStrategies {
+
+    private WaitStrategies() {
+    }
+
+    // Lowest latency, burns a whole core per waiting thread
+    public static WaitStrategy busySpin() {
+        return new WaitStrategy() {
+            @Override
+            public void idle() {
+            }
+        };
+    }
+
+    // Gives the core to other runnable threads, still 100% CPU when nothing else runs
+    public static WaitStrategy yielding() {
+        return new WaitStrategy() {
+            @Override
+            public void idle() {
+                Thread.yield();
+            }
+        };
+    }
+
+    // Almost no CPU when idle, wake up latency is the timer slack of the OS (~50us on Linux)
+    public static WaitStrategy parking(final long parkNanos) {
+        return new WaitStrategy() {
+            @Override
+            public void idle() {
+                LockSupport.parkNanos(parkNanos);
+            }
+        };
+    }
+
+    // -Dring.buffer.wait=spin|yield|park
+    public static WaitStrategy fromName(String name) {
+        switch (name) {
+            case "spin":
+                return busySpin();
+            case "yield":
+                return yielding();
+            case "park":
+                return parking(1000);
+            default:
+                throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        }
+    }
+
+}
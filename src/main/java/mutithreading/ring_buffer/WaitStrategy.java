@@ -0,0 +1,8 @@
+package mutithreading.ring_buffer;
+
+public interface WaitStrategy {
+
+    // Called in a loop while producer waits for free slot or consumer waits for data
+    void idle();
+
+}
@@ -0,0 +1,10 @@
+package mutithreading.simulations_and_multithreading.blocking_queue;
+
+import java.util.List;
+
+public interface BatchHandler<T> {
+
+    // batch is reused by the consumer after this method returns, copy it if you need to keep it
+    void handle(List<T> batch);
+
+}
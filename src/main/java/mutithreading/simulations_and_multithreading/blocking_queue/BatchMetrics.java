@@ -0,0 +1,61 @@
+package mutithreading.simulations_and_multithreading.blocking_queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BatchMetrics {
+
+    // Written by the consumer thread, can be read from any thread
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong elements = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong queueDepthSum = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    // queueDepth - elements left in the queue after the batch was drained
+    public void record(int batchSize, int queueDepth) {
+        batches.incrementAndGet();
+        elements.addAndGet(batchSize);
+        queueDepthSum.addAndGet(queueDepth);
+        if (batchSize > maxBatchSize.get()) {
+            maxBatchSize.set(batchSize);
+        }
+        if (queueDepth > maxQueueDepth.get()) {
+            maxQueueDepth.set(queueDepth);
+        }
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getElements() {
+        return elements.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) elements.get() / count;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public double getAverageQueueDepth() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) queueDepthSum.get() / count;
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("batches: %d, elements: %d, avg batch: %.1f, max batch: %d, avg queue depth: %.1f, max queue depth: %d",
+                getBatches(), getElements(), getAverageBatchSize(), getMaxBatchSize(),
+                getAverageQueueDepth(), getMaxQueueDepth());
+    }
+
+}
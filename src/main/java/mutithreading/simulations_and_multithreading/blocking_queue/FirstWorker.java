@@ -1,6 +1,11 @@
 package mutithreading.simulations_and_multithreading.blocking_queue;
 
+import mutithreading.logging.AsyncLog;
+import mutithreading.timer.HashedWheelTimer;
+import mutithreading.timer.Timeout;
+
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class FirstWorker implements Runnable {
 
@@ -10,14 +15,28 @@ public class FirstWorker implements Runnable {
         this.blockingQueue = blockingQueue;
     }
 
+    // Scheduled version of one loop iteration. It runs on the timer's worker pool,
+    // so it must not block in put() - when the queue is full the element is dropped.
+    public boolean tick() {
+        AsyncLog.println("First Worker");
+        if (!blockingQueue.offer("A")) {
+            AsyncLog.println("Queue full, skipping");
+        }
+        return true;
+    }
+
+    public Timeout scheduleOn(HashedWheelTimer timer) {
+        return timer.repeat(this::tick, 0, 1000, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void run() {
         try {
             while (true) {
-                System.out.println("First Worker");
+                AsyncLog.println("First Worker");
                 blockingQueue.put("A");
                 Thread.sleep(1000);
-                System.out.println();
+                AsyncLog.println("");
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -1,5 +1,10 @@
 package mutithreading.simulations_and_multithreading.blocking_queue;
 
+import mutithreading.logging.AsyncLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 
@@ -8,8 +13,31 @@ public class Main {
     public static void main(String[] args) {
         // (num) - capacity
         BlockingQueue<String> blockingQueue = new ArrayBlockingQueue<String>(5);
+        String spillDirectory = System.getProperty("blocking.queue.dir");
+        if (spillDirectory != null) {
+            // -Dblocking.queue.dir=/tmp/queue : unbounded, producer never stalls, backlog is kept on disk
+            // and unconsumed elements are still there after restart
+            try {
+                blockingQueue = new MappedSpillingQueue(new File(spillDirectory));
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+        }
         FirstWorker firstWorker = new FirstWorker(blockingQueue);
-        SecondWorker secondWorker = new SecondWorker(blockingQueue);
+        final SecondWorker secondWorker;
+        if (args.length >= 2) {
+            // batch mode: Main <maxBatchSize> <maxWaitMillis>
+            secondWorker = new SecondWorker(blockingQueue, Integer.parseInt(args[0]), Long.parseLong(args[1]),
+                    new BatchHandler<String>() {
+                        @Override
+                        public void handle(List<String> batch) {
+                            AsyncLog.println("Second Worker took batch: " + batch);
+                        }
+                    });
+        } else {
+            secondWorker = new SecondWorker(blockingQueue);
+        }
 
         Thread t1 = new Thread(firstWorker);
         Thread t2 = new Thread(secondWorker);
@@ -21,6 +49,21 @@ public class Main {
         t2.start();
         //t3.start();
 
+        if (args.length >= 2) {
+            Thread metrics = new Thread(() -> {
+                try {
+                    while (true) {
+                        Thread.sleep(5000);
+                        AsyncLog.println("Batch metrics: " + secondWorker.getBatchMetrics());
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            });
+            metrics.setDaemon(true);
+            metrics.start();
+        }
+
         try {
             t1.join();
             t2.join();
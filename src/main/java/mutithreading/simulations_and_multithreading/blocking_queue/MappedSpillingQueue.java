@@ -0,0 +1,401 @@
+package mutithreading.simulations_and_multithreading.blocking_queue;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class MappedSpillingQueue extends AbstractQueue<String> implements BlockingQueue<String>, Closeable {
+
+    // Unbounded BlockingQueue<String> that keeps its elements in memory mapped segment files,
+    // so put() never blocks the producer and a long backlog does not live on the heap.
+    //
+    // Every element is appended to the current segment (memcpy into page cache, no syscall).
+    // When the segment is full the writer marks its end and rotates to a new file.
+    // Segments that the consumer has read completely are deleted.
+    // The oldest unconsumed elements (up to hotWindowSize) are also kept as Strings on the heap,
+    // so a consumer that keeps up with the producer never decodes from disk.
+    //
+    // The read position is stored in a mapped checkpoint file after every poll,
+    // so after a restart (or JVM crash) the queue continues with the first unconsumed element.
+    // The OS writes dirty pages in the background, force() only happens in close().
+    //
+    // Record layout: [int length + 1][UTF-8 bytes], header 0 = not written yet, -1 = end of segment
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final int UNWRITTEN = 0;
+    private static final int HEADER_SIZE = 4;
+    private static final String CHECKPOINT_FILE = "checkpoint.dat";
+
+    private final File directory;
+    private final int segmentSize;
+    private final int hotWindowSize;
+
+    // one lock for producers and consumers, same as ArrayBlockingQueue
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // prefix of the unconsumed elements, also present on disk
+    private final ArrayDeque<String> hotWindow = new ArrayDeque<>();
+    private long count;
+
+    private long writeSegmentId;
+    private MappedByteBuffer writeBuffer;
+    private long readSegmentId;
+    private ByteBuffer readBuffer;
+    private final MappedByteBuffer checkpoint;
+
+    public MappedSpillingQueue(File directory) throws IOException {
+        this(directory, 64 * 1024 * 1024, 1024);
+    }
+
+    public MappedSpillingQueue(File directory, int segmentSize, int hotWindowSize) throws IOException {
+        if (segmentSize < 64) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.hotWindowSize = hotWindowSize;
+        this.checkpoint = map(new File(directory, CHECKPOINT_FILE), 12);
+        recover();
+    }
+
+    // Find read position from checkpoint and write position by scanning records after it
+    private void recover() throws IOException {
+        long lastSegmentId = -1;
+        long firstSegmentId = Long.MAX_VALUE;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                long id = segmentId(file);
+                if (id >= 0) {
+                    lastSegmentId = Math.max(lastSegmentId, id);
+                    firstSegmentId = Math.min(firstSegmentId, id);
+                }
+            }
+        }
+
+        readSegmentId = checkpoint.getLong(0);
+        int readPosition = checkpoint.getInt(8);
+        if (lastSegmentId < 0) {
+            // new queue
+            readSegmentId = 0;
+            readPosition = 0;
+            lastSegmentId = 0;
+        } else if (readSegmentId < firstSegmentId || readSegmentId > lastSegmentId) {
+            readSegmentId = firstSegmentId;
+            readPosition = 0;
+        }
+        for (long id = firstSegmentId; id < readSegmentId && id != Long.MAX_VALUE; id++) {
+            segmentFile(id).delete();
+        }
+
+        long segmentId = readSegmentId;
+        int position = readPosition;
+        MappedByteBuffer buffer = map(segmentFile(segmentId), segmentSize);
+        readBuffer = buffer.duplicate();
+        readBuffer.position(readPosition);
+        while (true) {
+            int header = position + HEADER_SIZE <= segmentSize ? buffer.getInt(position) : END_OF_SEGMENT;
+            if (header > 0) {
+                count++;
+                position += HEADER_SIZE + header - 1;
+            } else if (header == END_OF_SEGMENT && segmentId < lastSegmentId) {
+                segmentId++;
+                position = 0;
+                buffer = map(segmentFile(segmentId), segmentSize);
+            } else {
+                break;
+            }
+        }
+        if (position + HEADER_SIZE > segmentSize) {
+            // crashed right before writing the end marker, continue in a new segment
+            segmentId++;
+            position = 0;
+            buffer = map(segmentFile(segmentId), segmentSize);
+        }
+        writeSegmentId = segmentId;
+        writeBuffer = buffer;
+        writeBuffer.position(position);
+        if (writeSegmentId == readSegmentId) {
+            readBuffer = writeBuffer.duplicate();
+            readBuffer.position(readPosition);
+        }
+    }
+
+    @Override
+    public boolean offer(String value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > segmentSize - 2 * HEADER_SIZE) {
+            throw new IllegalArgumentException("Element of " + bytes.length + " bytes does not fit in a segment");
+        }
+        lock.lock();
+        try {
+            append(bytes);
+            if (hotWindow.size() == count && hotWindow.size() < hotWindowSize) {
+                // consumer is up to date, keep the element on heap as well
+                hotWindow.addLast(value);
+            }
+            count++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String value) {
+        // unbounded, never blocks
+        offer(value);
+    }
+
+    @Override
+    public boolean offer(String value, long timeout, TimeUnit unit) {
+        return offer(value);
+    }
+
+    @Override
+    public String poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String peek() {
+        lock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+            if (!hotWindow.isEmpty()) {
+                return hotWindow.peekFirst();
+            }
+            skipEndOfSegment();
+            int header = readBuffer.getInt(readBuffer.position());
+            return decode(readBuffer.duplicate(), readBuffer.position() + HEADER_SIZE, header - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> collection, int maxElements) {
+        if (collection == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && count > 0) {
+                collection.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Snapshot of the current elements, does not support remove()
+    @Override
+    public Iterator<String> iterator() {
+        lock.lock();
+        try {
+            List<String> snapshot = new ArrayList<>((int) Math.min(count, 1024));
+            long segmentId = readSegmentId;
+            ByteBuffer buffer = readBuffer.duplicate();
+            int position = buffer.position();
+            for (long i = 0; i < count; ) {
+                int header = buffer.getInt(position);
+                if (header == END_OF_SEGMENT) {
+                    segmentId++;
+                    buffer = segmentId == writeSegmentId ? writeBuffer.duplicate() : map(segmentFile(segmentId), segmentSize);
+                    position = 0;
+                    continue;
+                }
+                snapshot.add(decode(buffer, position + HEADER_SIZE, header - 1));
+                position += HEADER_SIZE + header - 1;
+                i++;
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            writeBuffer.force();
+            checkpoint.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(byte[] bytes) {
+        if (writeBuffer.remaining() < 2 * HEADER_SIZE + bytes.length) {
+            // always leave room for the end marker
+            writeBuffer.putInt(END_OF_SEGMENT);
+            try {
+                writeSegmentId++;
+                writeBuffer = map(segmentFile(writeSegmentId), segmentSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        // body first, header last - a torn record after a crash still reads as UNWRITTEN
+        int position = writeBuffer.position();
+        writeBuffer.position(position + HEADER_SIZE);
+        writeBuffer.put(bytes);
+        writeBuffer.putInt(position, bytes.length + 1);
+    }
+
+    private String dequeue() {
+        skipEndOfSegment();
+        int header = readBuffer.getInt(readBuffer.position());
+        if (header == UNWRITTEN) {
+            throw new IllegalStateException("Queue file corrupted, segment " + readSegmentId);
+        }
+        int length = header - 1;
+        int dataPosition = readBuffer.position() + HEADER_SIZE;
+        String value = hotWindow.isEmpty() ? decode(readBuffer, dataPosition, length) : hotWindow.pollFirst();
+        readBuffer.position(dataPosition + length);
+        count--;
+        checkpoint.putLong(0, readSegmentId);
+        checkpoint.putInt(8, readBuffer.position());
+        return value;
+    }
+
+    private void skipEndOfSegment() {
+        while (readBuffer.getInt(readBuffer.position()) == END_OF_SEGMENT) {
+            File finished = segmentFile(readSegmentId);
+            readSegmentId++;
+            if (readSegmentId == writeSegmentId) {
+                readBuffer = writeBuffer.duplicate();
+                readBuffer.position(0);
+            } else {
+                try {
+                    readBuffer = map(segmentFile(readSegmentId), segmentSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            // mapping stays valid until it is garbage collected, deleting the file is fine on Linux
+            finished.delete();
+        }
+    }
+
+    private static String decode(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private File segmentFile(long id) {
+        return new File(directory, String.format("segment-%020d.dat", id));
+    }
+
+    private static long segmentId(File file) {
+        String name = file.getName();
+        if (!name.startsWith("segment-") || !name.endsWith(".dat")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring("segment-".length(), name.length() - ".dat".length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            // new files are extended with zeros = UNWRITTEN headers
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+}
@@ -1,26 +1,89 @@
 package mutithreading.simulations_and_multithreading.blocking_queue;
 
+import mutithreading.logging.AsyncLog;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class SecondWorker implements Runnable {
 
     private BlockingQueue<String> blockingQueue;
 
+    // Batch mode: one lock acquisition (drainTo) takes up to maxBatchSize elements.
+    // After the first element arrives we wait at most maxWaitMillis for the batch to fill up,
+    // bigger batches -> more throughput, longer wait -> more latency.
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final BatchHandler<String> batchHandler;
+    private final BatchMetrics batchMetrics = new BatchMetrics();
+
     public SecondWorker(BlockingQueue<String> blockingQueue) {
+        this(blockingQueue, 1, 0, null);
+    }
+
+    public SecondWorker(BlockingQueue<String> blockingQueue, int maxBatchSize, long maxWaitMillis,
+                        BatchHandler<String> batchHandler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
         this.blockingQueue = blockingQueue;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.batchHandler = batchHandler;
+    }
+
+    public BatchMetrics getBatchMetrics() {
+        return batchMetrics;
     }
 
     @Override
     public void run() {
+        if (batchHandler != null) {
+            runBatched();
+            return;
+        }
         try {
             while (true) {
                 Thread.sleep(2000);
-                System.out.println("=======================");
-                System.out.println("Second Worker");
-                System.out.println("BlockingQueue size: " + blockingQueue.size());
-                System.out.println("Take from Queue: " + blockingQueue.take());
-                System.out.println("BlockingQueue size: " + blockingQueue.size());
-                System.out.println("=======================\n");
+                AsyncLog.println("=======================");
+                AsyncLog.println("Second Worker");
+                AsyncLog.println("BlockingQueue size: " + blockingQueue.size());
+                AsyncLog.println("Take from Queue: " + blockingQueue.take());
+                AsyncLog.println("BlockingQueue size: " + blockingQueue.size());
+                AsyncLog.println("=======================\n");
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void runBatched() {
+        List<String> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // block until there is at least one element
+                batch.add(blockingQueue.take());
+                blockingQueue.drainTo(batch, maxBatchSize - batch.size());
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    String next = blockingQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    blockingQueue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                batchMetrics.record(batch.size(), blockingQueue.size());
+                batchHandler.handle(batch);
+                batch.clear();
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -2,10 +2,12 @@ package mutithreading.simulations_and_multithreading.callable_and_future;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 public class App {
 
@@ -14,24 +16,55 @@ public class App {
         // maximize the number of threads
         // if all threads are busy, we have to wait for one to terminate
         ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-        List<Future<String>>  list = new ArrayList<>();
+        AsyncCombinators async = new AsyncCombinators(executorService);
+        List<Processor> processors = new ArrayList<>();
 
         for (int i = 0; i < 500; i++) {
-            Future<String> future = executorService.submit(new Processor(i+1));
-            list.add(future);
+            processors.add(new Processor(i + 1));
         }
 
-        for (Future<String> future : list) {
-            try {
-                System.out.println(future.get());
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            } catch (ExecutionException e) {
-                e.printStackTrace();
+        // future.get() in submission order: one slow task delays printing of every result after it.
+        // Here every result is printed as soon as its task completes, every task has its own timeout,
+        // so a slow or failed task costs at most the timeout and does not hide other results.
+        // Timeout starts at submission, time waiting in the pool queue counts too.
+        List<CompletableFuture<String>> futures = new ArrayList<>(processors.size());
+        for (Processor processor : processors) {
+            // whenComplete returns a stage that completes after printing, so the summary comes last.
+            // On a timeout it runs on the timer thread, fine for one println, not for real work.
+            futures.add(async.supply(processor, 30, TimeUnit.SECONDS).whenComplete((value, error) ->
+                    System.out.println(error == null ? "OK " + value : "FAILED " + error)));
+        }
+        // allSettled only for the summary, it never fails
+        CompletableFuture<Void> all = AsyncCombinators.allSettled(futures).thenAccept(results -> {
+            int failed = 0;
+            for (AsyncCombinators.Settled<String> result : results) {
+                if (!result.isSuccess()) {
+                    failed++;
+                }
             }
+            System.out.println("Settled: " + results.size() + ", failed: " + failed);
+        });
+        all.join();
+
+        // First 3 of 10 - the other 7 are cancelled (skipped if they did not start yet)
+        System.out.println("First 3: " + async.firstN(processors.subList(0, 10), 3).join());
+
+        // Hedged request: second attempt after 20 ms if the first one is slow.
+        // Attempts must run in parallel, so IO-like requests get their own (cached) pool.
+        ExecutorService requestPool = Executors.newCachedThreadPool();
+        AsyncCombinators requests = new AsyncCombinators(requestPool);
+        Callable<String> sometimesSlow = () -> {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(10) == 0 ? 500 : 10);
+            return Thread.currentThread().getName();
+        };
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            requests.hedged(sometimesSlow, 20, TimeUnit.MILLISECONDS, 2).join();
         }
+        System.out.println("20 hedged requests in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
 
         executorService.shutdown();
+        requestPool.shutdown();
 
     }
 
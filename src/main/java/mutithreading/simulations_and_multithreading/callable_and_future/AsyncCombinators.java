@@ -0,0 +1,269 @@
+package mutithreading.simulations_and_multithreading.callable_and_future;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncCombinators {
+
+    // Fan-out / fan-in on CompletableFuture without blocking get() calls:
+    //  allOf      - all results in submission order, first failure or timeout fails everything
+    //  allSettled - waits for all, every task reports value or error (partial failures are fine)
+    //  firstN     - first n successful results in completion order, the rest is cancelled
+    //  hedged     - same request again after a delay if the first one is slow, first success wins
+    // Tasks run on the given executor, timeouts on the scheduler
+    // (Java 8 CompletableFuture has no orTimeout / completeOnTimeout).
+    // When a timeout fires, the non-async stages (thenApply, whenComplete...) of the timed-out future
+    // and the cancellations it causes run on the single timer thread and delay every other timeout:
+    // keep them short, or use the *Async variants with an executor for real work.
+    // Cancel (also after timeout) skips tasks that did not start yet, running callables are not interrupted -
+    // long tasks should check a mutithreading.cancellation.CancellationToken.
+
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+
+    public static final class Settled<T> {
+        private final T value;
+        private final Throwable error;
+
+        private Settled(T value, Throwable error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return isSuccess() ? "OK " + value : "FAILED " + error;
+        }
+    }
+
+    public AsyncCombinators(Executor executor) {
+        this(executor, newScheduler());
+    }
+
+    public AsyncCombinators(Executor executor, ScheduledExecutorService scheduler) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+    }
+
+    // Timer thread completes timed-out futures. It is not handed to the task executor on purpose:
+    // a saturated executor would hold the timeout back until queued tasks finished.
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "async-combinators-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // timeouts are cancelled when tasks finish in time, do not keep them in the queue
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    public <T> CompletableFuture<T> supply(final Callable<T> task) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (result.isDone()) {
+                // cancelled or timed out while queued
+                return;
+            }
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Fails with TimeoutException when future is not done in time, and cancels it.
+    // Cancelling the returned future cancels the source too, so a queued task is skipped.
+    public <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final long timeout,
+                                                final TimeUnit unit) {
+        final CompletableFuture<T> timed = new CompletableFuture<>();
+        timed.whenComplete((value, error) -> {
+            if (timed.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        final ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (timed.completeExceptionally(new TimeoutException("Not completed in " + timeout + " " + unit))) {
+                future.cancel(false);
+            }
+        }, timeout, unit);
+        future.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (error == null) {
+                timed.complete(value);
+            } else {
+                timed.completeExceptionally(unwrap(error));
+            }
+        });
+        return timed;
+    }
+
+    public <T> CompletableFuture<T> supply(Callable<T> task, long timeout, TimeUnit unit) {
+        return withTimeout(supply(task), timeout, unit);
+    }
+
+    public <T> CompletableFuture<List<T>> allOf(List<? extends Callable<T>> tasks, long timeoutPerTask,
+                                                TimeUnit unit) {
+        final List<CompletableFuture<T>> futures = supplyAll(tasks, timeoutPerTask, unit);
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        for (CompletableFuture<T> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null && result.completeExceptionally(unwrap(error))) {
+                    // fail fast: nobody needs the other results
+                    cancelAll(futures);
+                }
+            });
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            List<T> values = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                values.add(future.join());
+            }
+            result.complete(values);
+        });
+        return result;
+    }
+
+    // Never fails, results in submission order
+    public <T> CompletableFuture<List<Settled<T>>> allSettled(List<? extends Callable<T>> tasks,
+                                                              long timeoutPerTask, TimeUnit unit) {
+        return allSettled(supplyAll(tasks, timeoutPerTask, unit));
+    }
+
+    // Same for futures the caller already has (e.g. to react to each one as it completes)
+    public static <T> CompletableFuture<List<Settled<T>>> allSettled(List<CompletableFuture<T>> futures) {
+        final List<CompletableFuture<Settled<T>>> settled = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            settled.add(future.handle((value, error) -> new Settled<>(value, error == null ? null : unwrap(error))));
+        }
+        return CompletableFuture.allOf(settled.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<Settled<T>> values = new ArrayList<>(settled.size());
+            for (CompletableFuture<Settled<T>> future : settled) {
+                values.add(future.join());
+            }
+            return values;
+        });
+    }
+
+    // Fails when so many tasks failed that n successes are no longer possible
+    public <T> CompletableFuture<List<T>> firstN(List<? extends Callable<T>> tasks, final int n) {
+        if (n < 1 || n > tasks.size()) {
+            throw new IllegalArgumentException("n must be between 1 and " + tasks.size() + ": " + n);
+        }
+        final int allowedFailures = tasks.size() - n;
+        final List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        final List<T> values = new ArrayList<>(n);
+        final AtomicInteger failures = new AtomicInteger();
+        for (Callable<T> task : tasks) {
+            futures.add(supply(task));
+        }
+        for (CompletableFuture<T> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    List<T> completed = null;
+                    synchronized (values) {
+                        if (values.size() < n) {
+                            values.add(value);
+                            if (values.size() == n) {
+                                completed = Collections.unmodifiableList(new ArrayList<>(values));
+                            }
+                        }
+                    }
+                    if (completed != null && result.complete(completed)) {
+                        cancelAll(futures);
+                    }
+                } else if (failures.incrementAndGet() > allowedFailures) {
+                    if (result.completeExceptionally(unwrap(error))) {
+                        cancelAll(futures);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    // Starts another attempt after hedgeDelay (or right away when an attempt fails), at most maxAttempts.
+    // Only for idempotent requests - several attempts can run at the same time.
+    public <T> CompletableFuture<T> hedged(final Callable<T> task, final long hedgeDelay, final TimeUnit unit,
+                                           final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final List<CompletableFuture<T>> attempts = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final Runnable[] startAttempt = new Runnable[1];
+        startAttempt[0] = () -> {
+            if (result.isDone() || started.incrementAndGet() > maxAttempts) {
+                return;
+            }
+            CompletableFuture<T> attempt = supply(task);
+            attempts.add(attempt);
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value)) {
+                        cancelAll(attempts);
+                    }
+                } else if (failures.incrementAndGet() == maxAttempts) {
+                    result.completeExceptionally(unwrap(error));
+                } else {
+                    // fail over, do not wait for the hedge delay
+                    startAttempt[0].run();
+                }
+            });
+            final ScheduledFuture<?> hedge = scheduler.schedule(startAttempt[0], hedgeDelay, unit);
+            result.whenComplete((value, error) -> hedge.cancel(false));
+        };
+        startAttempt[0].run();
+        return result;
+    }
+
+    private <T> List<CompletableFuture<T>> supplyAll(List<? extends Callable<T>> tasks, long timeoutPerTask,
+                                                     TimeUnit unit) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(supply(task, timeoutPerTask, unit));
+        }
+        return futures;
+    }
+
+    private static void cancelAll(List<? extends CompletableFuture<?>> futures) {
+        synchronized (futures) {
+            for (CompletableFuture<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+}
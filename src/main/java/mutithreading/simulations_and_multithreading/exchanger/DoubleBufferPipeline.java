@@ -0,0 +1,41 @@
+package mutithreading.simulations_and_multithreading.exchanger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.Exchanger;
+
+public class DoubleBufferPipeline {
+
+    // Filling stage -> Exchanger -> draining stage, with two preallocated buffers of bufferSize.
+    // direct = true puts the buffers off heap (ByteBuffer.allocateDirect), handy when the data
+    // comes from or goes to a channel (sensor device, socket, file).
+
+    public static IntBuffer allocate(int size, boolean direct) {
+        if (direct) {
+            return ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return IntBuffer.allocate(size);
+    }
+
+    // Returns drained element count
+    public static long run(long items, int bufferSize, boolean direct) throws InterruptedException {
+        Exchanger<IntBuffer> exchanger = new Exchanger<>();
+        FillingWorker fillingWorker = new FillingWorker(exchanger, allocate(bufferSize, direct), items, 0);
+        DrainingWorker drainingWorker = new DrainingWorker(exchanger, allocate(bufferSize, direct), false);
+
+        Thread t1 = new Thread(fillingWorker);
+        Thread t2 = new Thread(drainingWorker);
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+
+        long expectedSum = items * (items - 1) / 2;
+        if (drainingWorker.getCount() != items || drainingWorker.getSum() != expectedSum) {
+            throw new IllegalStateException("Drained " + drainingWorker.getCount() + " of " + items);
+        }
+        return drainingWorker.getCount();
+    }
+
+}
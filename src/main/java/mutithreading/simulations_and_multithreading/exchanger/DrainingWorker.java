@@ -0,0 +1,54 @@
+package mutithreading.simulations_and_multithreading.exchanger;
+
+import mutithreading.logging.AsyncLog;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.Exchanger;
+
+public class DrainingWorker implements Runnable {
+
+    // Other side of FillingWorker: gives an empty buffer, gets a full one back
+
+    private IntBuffer currentBuffer;
+    private Exchanger<IntBuffer> exchanger;
+    private final boolean verbose;
+    private long count;
+    private long sum;
+
+    public DrainingWorker(Exchanger<IntBuffer> exchanger, IntBuffer buffer, boolean verbose) {
+        this.exchanger = exchanger;
+        this.currentBuffer = buffer;
+        this.verbose = verbose;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                currentBuffer.clear();
+                currentBuffer = exchanger.exchange(currentBuffer);
+                if (!currentBuffer.hasRemaining()) {
+                    // end of stream
+                    break;
+                }
+                if (verbose) {
+                    AsyncLog.println("Draining worker got " + currentBuffer.remaining() + " elements");
+                }
+                while (currentBuffer.hasRemaining()) {
+                    sum += currentBuffer.get();
+                    count++;
+                }
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+}
@@ -0,0 +1,61 @@
+package mutithreading.simulations_and_multithreading.exchanger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class ExchangerBenchmark {
+
+    // Double buffer pipeline vs BlockingQueue<Integer> hand-off of every single element
+    // java mutithreading.simulations_and_multithreading.exchanger.ExchangerBenchmark [items]
+
+    public static void main(String[] args) throws InterruptedException {
+        long items = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(round == 0 ? "Warm up" : "Round " + round);
+            for (int bufferSize : new int[]{64, 1024, 16384}) {
+                for (boolean direct : new boolean[]{false, true}) {
+                    long start = System.nanoTime();
+                    DoubleBufferPipeline.run(items, bufferSize, direct);
+                    report("Exchanger " + (direct ? "direct " : "heap ") + bufferSize, items, start);
+                }
+            }
+            long start = System.nanoTime();
+            runBlockingQueue(items, 1024);
+            report("ArrayBlockingQueue 1024", items, start);
+        }
+    }
+
+    private static void report(String name, long items, long startNanos) {
+        double millis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.printf("%-25s %10.1f items/ms%n", name, items / millis);
+    }
+
+    private static void runBlockingQueue(final long items, int capacity) throws InterruptedException {
+        final BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(capacity);
+        final long[] sum = new long[1];
+        Thread producer = new Thread(() -> {
+            try {
+                for (long i = 0; i < items; i++) {
+                    queue.put((int) i);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            try {
+                for (long i = 0; i < items; i++) {
+                    sum[0] += queue.take();
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+    }
+
+}
@@ -1,7 +1,8 @@
 package mutithreading.simulations_and_multithreading.exchanger;
 
-import java.util.ArrayList;
-import java.util.List;
+import mutithreading.logging.AsyncLog;
+
+import java.nio.IntBuffer;
 import java.util.concurrent.Exchanger;
 
 public class FillingWorker implements Runnable {
@@ -9,34 +10,59 @@ public class FillingWorker implements Runnable {
     // With the help of Exchanger - two threads can exchange objects
     // Exchanging is done by one of two exchange() methods
 
-    private List<Integer> currentBuffer;
+    // Double buffering: filling worker writes into one buffer while draining worker reads the other,
+    // when the buffer is full both swap. Only the two preallocated IntBuffers ever exist,
+    // put(int) stores a primitive - no Integer boxing, no allocation per element.
+    // An empty buffer (limit 0) tells the draining worker that there is no more data.
+
+    private IntBuffer currentBuffer;
     private int counter;
-    private Exchanger<List<Integer>> exchanger;
+    private final long items;
+    private final long pauseMillis;
+    private Exchanger<IntBuffer> exchanger;
+
+    // Demo: endless stream, one element every 100 ms, buffer of 10
+    public FillingWorker(Exchanger<IntBuffer> exchanger) {
+        this(exchanger, DoubleBufferPipeline.allocate(10, false), Long.MAX_VALUE, 100);
+    }
 
-    public FillingWorker(Exchanger<List<Integer>> exchanger) {
+    public FillingWorker(Exchanger<IntBuffer> exchanger, IntBuffer buffer, long items, long pauseMillis) {
         this.exchanger = exchanger;
         this.counter = 0;
-        this.currentBuffer = new ArrayList<>();
+        this.currentBuffer = buffer;
+        this.items = items;
+        this.pauseMillis = pauseMillis;
     }
 
     @Override
     public void run() {
-        while (true) {
-            if (this.currentBuffer.size() == 10) {
-                System.out.println("Filling worker");
-                try {
-                    currentBuffer = exchanger.exchange(this.currentBuffer);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+        try {
+            for (long i = 0; i < items; i++) {
+                if (!currentBuffer.hasRemaining()) {
+                    if (pauseMillis > 0) {
+                        AsyncLog.println("Filling worker");
+                    }
+                    swap();
+                }
+                currentBuffer.put(counter++);
+                if (pauseMillis > 0) {
+                    AsyncLog.println(counter);
+                    Thread.sleep(pauseMillis);
                 }
             }
-            currentBuffer.add(counter++);
-            System.out.println(counter);
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+            // rest of the data, then empty buffer as end of stream
+            if (currentBuffer.position() > 0) {
+                swap();
             }
+            swap();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
         }
     }
+
+    private void swap() throws InterruptedException {
+        currentBuffer.flip();
+        currentBuffer = exchanger.exchange(currentBuffer);
+        currentBuffer.clear();
+    }
 }
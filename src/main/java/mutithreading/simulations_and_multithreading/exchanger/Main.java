@@ -1,13 +1,15 @@
 package mutithreading.simulations_and_multithreading.exchanger;
 
-import java.util.List;
+import java.nio.IntBuffer;
 import java.util.concurrent.Exchanger;
 
 public class Main {
 
     public static void main(String[] args) {
-        Exchanger<List<Integer>> exchanger = new Exchanger<>();
+        Exchanger<IntBuffer> exchanger = new Exchanger<>();
         Thread t1 = new Thread(new FillingWorker(exchanger));
+        Thread t2 = new Thread(new DrainingWorker(exchanger, DoubleBufferPipeline.allocate(10, false), true));
         t1.start();
+        t2.start();
     }
 }
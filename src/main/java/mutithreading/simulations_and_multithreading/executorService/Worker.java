@@ -1,12 +1,31 @@
 package mutithreading.simulations_and_multithreading.executorService;
 
+import mutithreading.logging.AsyncLog;
+import mutithreading.timer.HashedWheelTimer;
+import mutithreading.timer.Timeout;
+
+import java.util.concurrent.TimeUnit;
+
 public class Worker implements Runnable {
+
+    private int counter = 0;
+
+    // Scheduled version: counter printed once per second, stops after 5
+    public boolean tick() {
+        AsyncLog.println("Counter: " + counter++);
+        return counter < 5;
+    }
+
+    public Timeout scheduleOn(HashedWheelTimer timer) {
+        return timer.repeat(this::tick, 1000, 1000, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void run() {
         for (int i = 0; i < 5; i++) {
             try {
                 Thread.sleep(1000);
-                System.out.println("Counter: " + i);
+                AsyncLog.println("Counter: " + i);
             } catch (InterruptedException e) {
                 e.printStackTrace();
             }
@@ -1,18 +1,21 @@
 package mutithreading.simulations_and_multithreading.lock;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import mutithreading.counters.Counter;
+import mutithreading.counters.CounterType;
+import mutithreading.counters.LockCounter;
+import mutithreading.metrics.InstrumentedLock;
 
 public class App {
 
-    private static int counter = 0;
     // No unnecessary blocking, advantage over synchronized
-    private static Lock lock = new ReentrantLock();
+    // Instrumented ReentrantLock by default, other backends with -Dcounter.type=SYNCHRONIZED|REENTRANT_LOCK|ATOMIC|PADDED_ATOMIC|STRIPED
+    private static Counter counter = System.getProperty("counter.type") == null
+            ? new LockCounter(new InstrumentedLock("lock-app-counter"))
+            : CounterType.fromSystemProperty(CounterType.REENTRANT_LOCK);
 
     public static void increment() {
-        lock.lock();
-        counter++;
-        lock.unlock();
+        // LockCounter: lock.lock(); count++; lock.unlock() in finally block
+        counter.increment();
     }
 
     public static void first() {
@@ -52,7 +55,8 @@ public class App {
             e.printStackTrace();
         }
 
-        System.out.println("Counter: " + counter);
+        System.out.println("Counter: " + counter.get());
+        System.out.print(InstrumentedLock.report(5));
     }
 
 }
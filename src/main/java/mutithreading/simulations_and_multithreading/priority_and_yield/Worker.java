@@ -1,5 +1,7 @@
 package mutithreading.simulations_and_multithreading.priority_and_yield;
 
+import mutithreading.logging.AsyncLog;
+
 public class Worker implements Runnable {
 
     private String name;
@@ -11,7 +13,8 @@ public class Worker implements Runnable {
     @Override
     public void run() {
         while (true) {
-            System.out.println(this);
+            // with println the console lock decides which thread runs, not the priority
+            AsyncLog.println(this);
         }
     }
 
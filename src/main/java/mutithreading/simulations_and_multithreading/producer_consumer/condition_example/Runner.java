@@ -1,5 +1,7 @@
 package mutithreading.simulations_and_multithreading.producer_consumer.condition_example;
 
+import mutithreading.logging.AsyncLog;
+
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -11,9 +13,9 @@ public class Runner {
 
     public void produce() throws InterruptedException {
         lock.lock();
-        System.out.println("Producer method");
+        AsyncLog.println("Producer method");
         condition.await();
-        System.out.println("Producer again");
+        AsyncLog.println("Producer again");
         lock.unlock();
 
     }
@@ -22,7 +24,7 @@ public class Runner {
         lock.lock();
 
         Thread.sleep(1000);
-        System.out.println("Consumer method");
+        AsyncLog.println("Consumer method");
         Thread.sleep(1000);
         condition.signal();
         lock.unlock();
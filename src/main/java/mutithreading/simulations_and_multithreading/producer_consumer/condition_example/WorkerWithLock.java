@@ -1,5 +1,7 @@
 package mutithreading.simulations_and_multithreading.producer_consumer.condition_example;
 
+import mutithreading.watchdog.DeadlockWatchdog;
+
 public class WorkerWithLock {
 
     public static void main(String[] args) {
@@ -26,6 +28,8 @@ public class WorkerWithLock {
                 }
             }
         });
+        // If consume() gets the lock first, produce() awaits a signal that was already sent and hangs forever
+        DeadlockWatchdog watchdog = DeadlockWatchdog.fromSystemProperties().watch(t1, t2).start();
         t1.start();
         t2.start();
 
@@ -35,5 +39,6 @@ public class WorkerWithLock {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        watchdog.close();
     }
 }
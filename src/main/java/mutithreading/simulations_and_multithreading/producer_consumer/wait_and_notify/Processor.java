@@ -1,22 +1,25 @@
 package mutithreading.simulations_and_multithreading.producer_consumer.wait_and_notify;
 
+import mutithreading.handoff.HandOff;
+
 public class Processor {
 
+    // wait() / notify() on this: every hand-off parks and unparks through the OS, and a notify()
+    // that comes before wait() is lost. HandOff spins, yields and only then parks, and keeps the signal.
+    // Monitor version for comparison: mutithreading.handoff.PingPongBenchmark
+    private final HandOff handOff = new HandOff();
+
     public void produce() throws InterruptedException {
-        synchronized (this) {
-            System.out.println("Producer method");
-            wait();
-            System.out.println("Producer method again");
-        }
+        System.out.println("Producer method");
+        handOff.await();
+        System.out.println("Producer method again");
     }
 
     public void consume() throws InterruptedException {
         Thread.sleep(2000);
-        synchronized (this) {
-            System.out.println("Consumer method");
-            Thread.sleep(1000);
-            notify();
-        }
+        System.out.println("Consumer method");
+        Thread.sleep(1000);
+        handOff.signal();
     }
 
 }
@@ -1,21 +1,35 @@
 package mutithreading.simulations_and_multithreading.semaphores.singleton;
 
+import mutithreading.limiter.AdaptiveLimiter;
+
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 enum Downloader { // enum is thread safe
     INSTANCE;
-    // Semaphore(int permits, boolean fair)
-    private Semaphore semaphore = new Semaphore(3, true);
+    // Semaphore(int permits, boolean fair) with fixed 3 permits either wastes backend capacity
+    // or overloads it. AdaptiveLimiter starts with 3 permits and moves the limit with measured
+    // latency (-Dlimiter=aimd|gradient), requests waiting longer than 5 s are rejected.
+    private AdaptiveLimiter limiter = AdaptiveLimiter.fromSystemProperty(3, 50, 1500);
     public void downloadData() {
+        AdaptiveLimiter.Permit permit;
         try {
-            semaphore.acquire();
-            download();
+            permit = limiter.tryAcquire(5, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             e.printStackTrace();
-        } finally {
-            semaphore.release();
+            return;
+        }
+        if (permit == null) {
+            System.out.println("Backend overloaded, download rejected. " + limiter.stats());
+            return;
+        }
+        try {
+            download();
+            permit.success();
+        } catch (RuntimeException e) {
+            permit.dropped();
+            throw e;
         }
     }
 
@@ -0,0 +1,134 @@
+package mutithreading.simulations_and_multithreading.synchronization;
+
+import mutithreading.counters.Counter;
+import mutithreading.counters.PaddedAtomicCounter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class FalseSharingBenchmark {
+
+    // Every thread increments only its own counter - no logical sharing at all.
+    // Adjacent counters still share a cache line, so every increment steals the line from the other cores.
+    // Expect the padded version to scale with threads and the adjacent one to get slower per thread.
+    // Needs at least 2 cores to show anything, with 1 core threads never run at the same time.
+    // java mutithreading.simulations_and_multithreading.synchronization.FalseSharingBenchmark [threads] [increments]
+
+    private interface Counters {
+        void increment(int index);
+
+        long get(int index);
+    }
+
+    // Main2 layout: neighbouring ints, each behind its own lock
+    private static class SynchronizedCounters implements Counters {
+        private final int[] counts;
+        private final Object[] locks;
+
+        SynchronizedCounters(int size) {
+            counts = new int[size];
+            locks = new Object[size];
+            for (int i = 0; i < size; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        @Override
+        public void increment(int index) {
+            synchronized (locks[index]) {
+                counts[index]++;
+            }
+        }
+
+        @Override
+        public long get(int index) {
+            synchronized (locks[index]) {
+                return counts[index];
+            }
+        }
+    }
+
+    // lock-free, but 8 counters per 64 byte line
+    private static class AdjacentCounters implements Counters {
+        private final AtomicLongArray counts;
+
+        AdjacentCounters(int size) {
+            counts = new AtomicLongArray(size);
+        }
+
+        @Override
+        public void increment(int index) {
+            counts.incrementAndGet(index);
+        }
+
+        @Override
+        public long get(int index) {
+            return counts.get(index);
+        }
+    }
+
+    private static class PaddedCounters implements Counters {
+        private final Counter[] counts;
+
+        PaddedCounters(int size) {
+            counts = new Counter[size];
+            for (int i = 0; i < size; i++) {
+                counts[i] = new PaddedAtomicCounter();
+            }
+        }
+
+        @Override
+        public void increment(int index) {
+            counts[index].increment();
+        }
+
+        @Override
+        public long get(int index) {
+            return counts[index].get();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0])
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+        long increments = args.length > 1 ? Long.parseLong(args[1]) : 20_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(round == 0 ? "Warm up" : "Round " + round);
+            for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+                run("synchronized adjacent", new SynchronizedCounters(threads), threads, increments);
+                run("atomic adjacent", new AdjacentCounters(threads), threads, increments);
+                run("atomic padded", new PaddedCounters(threads), threads, increments);
+                if (threads == maxThreads) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void run(String name, final Counters counters, int threads, final long increments)
+            throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            workers[i] = new Thread(() -> {
+                for (long j = 0; j < increments; j++) {
+                    counters.increment(index);
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        long total = 0;
+        for (int i = 0; i < threads; i++) {
+            total += counters.get(i);
+        }
+        System.out.printf("%-22s %2d threads %10.1f increments/ms%n", name, threads, total / millis);
+    }
+
+}
@@ -1,10 +1,14 @@
 package mutithreading.simulations_and_multithreading.synchronization;
 
+import mutithreading.counters.Counter;
+import mutithreading.counters.CounterType;
+
 public class Main {
 
-    private static int count = 0;
-    private static synchronized void increment() {
-        count++;
+    // SYNCHRONIZED by default, other backends with -Dcounter.type=REENTRANT_LOCK|ATOMIC|PADDED_ATOMIC|STRIPED
+    private static Counter count = CounterType.fromSystemProperty(CounterType.SYNCHRONIZED);
+    private static void increment() {
+        count.increment();
     }
 
     public static void process() {
@@ -32,7 +36,7 @@ public class Main {
 
     public static void main(String[] args) {
         process();
-        System.out.println("Count: " + count);
+        System.out.println("Count: " + count.get());
     }
 
 }
@@ -1,11 +1,20 @@
 package mutithreading.simulations_and_multithreading.synchronization;
 
+import mutithreading.counters.Counter;
+import mutithreading.counters.PaddedAtomicCounter;
+
 public class Main2 {
     private static int count1 = 0;
     private static int count2 = 0;
     private static Object lock1 = new Object();
     private static Object lock2 = new Object();
 
+    // Lock-free version: count1 and count2 above are neighbours in memory, without the locks
+    // two threads updating them would fight for one cache line (false sharing).
+    // Padded counters keep each value on its own cache line, see FalseSharingBenchmark.
+    private static final Counter paddedCount1 = new PaddedAtomicCounter();
+    private static final Counter paddedCount2 = new PaddedAtomicCounter();
+
     public static void add() {
         synchronized (lock1) {
             count1++;
@@ -18,6 +27,14 @@ public class Main2 {
         }
     }
 
+    public static void addLockFree() {
+        paddedCount1.increment();
+    }
+
+    public static void addAgainLockFree() {
+        paddedCount2.increment();
+    }
+
     public static void compute() {
         for (int i = 0; i < 2000; i++) {
             add();
@@ -25,15 +42,33 @@ public class Main2 {
         }
     }
 
-    public static void main(String[] args) {
+    public static void computeLockFree() {
+        for (int i = 0; i < 2000; i++) {
+            addLockFree();
+            addAgainLockFree();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
         Thread t1 = new Thread(() -> {
            compute();
+           computeLockFree();
+        });
+        Thread t2 = new Thread(() -> {
+            compute();
+            computeLockFree();
         });
 
         t1.start();
+        t2.start();
+        // without join the counts are printed before the threads finished
+        t1.join();
+        t2.join();
 
         System.out.println("Count1 : " + count1);
         System.out.println("Count2 : " + count2);
+        System.out.println("Lock-free Count1 : " + paddedCount1.get());
+        System.out.println("Lock-free Count2 : " + paddedCount2.get());
     }
 
 }
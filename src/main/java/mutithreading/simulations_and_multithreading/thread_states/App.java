@@ -1,5 +1,7 @@
 package mutithreading.simulations_and_multithreading.thread_states;
 
+import mutithreading.logging.AsyncLog;
+
 public class App {
 
     public static void main(String[] args) {
@@ -13,6 +15,8 @@ public class App {
         }
 
         worker.finish();
+        // worker lines first
+        AsyncLog.flush();
         System.out.print(worker.isAlive());
     }
 
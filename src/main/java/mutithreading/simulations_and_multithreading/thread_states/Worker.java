@@ -1,5 +1,11 @@
 package mutithreading.simulations_and_multithreading.thread_states;
 
+import mutithreading.logging.AsyncLog;
+import mutithreading.timer.HashedWheelTimer;
+import mutithreading.timer.Timeout;
+
+import java.util.concurrent.TimeUnit;
+
 public class Worker extends Thread {
 
     // Thread states
@@ -17,10 +23,23 @@ public class Worker extends Thread {
         this.thread = null;
     }
 
+    // One iteration of run() without the sleep
+    public boolean tick() {
+        if (this.thread != this) {
+            return false;
+        }
+        AsyncLog.println("Thread is running ... ");
+        return true;
+    }
+
+    // Same work without a thread of its own: the timer calls tick() every 500 ms until finish()
+    public Timeout scheduleOn(HashedWheelTimer timer) {
+        return timer.repeat(this::tick, 0, 500, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void run() {
-        while (this.thread == this) {
-            System.out.println("Thread is running ... ");
+        while (tick()) {
             try {
                 Thread.sleep(500);
             } catch (InterruptedException e) {
@@ -0,0 +1,205 @@
+package mutithreading.singleton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PublicationStressTest {
+
+    // jcstress-style stress test for lazy initialization.
+    // A static singleton is initialized only once per JVM, so every variant is copied here
+    // as an instance-level "lazy field" - a new one per round, so two actors can race on it millions of times.
+    // Each actor calls get() and immediately checks what it sees:
+    //   FULL      - object with all fields written by the constructor
+    //   PARTIAL   - object is visible, but some constructor writes are not (unsafe publication)
+    //   NULL      - get() returned null (racy re-read of a plain field)
+    //   DUPLICATE - actors got two different instances
+    // Forbidden outcomes may not show up on x86 (stores are not reordered by the CPU),
+    // not seeing them is not a proof - run on ARM or with -XX:+UnlockDiagnosticVMOptions -XX:+StressGCM etc.
+    //
+    // Holder idiom (holder.Singleton) is not repeated here: class initialization happens once per class loader,
+    // its safety comes from the class initialization lock (JLS 12.4.2), same guarantee as SYNCHRONIZED.
+
+    static class Payload {
+        int a;
+        int b;
+        int c;
+        int d;
+
+        Payload() {
+            a = 1;
+            b = 2;
+            c = 3;
+            d = 4;
+        }
+    }
+
+    interface LazyField {
+        Payload get();
+    }
+
+    enum Variant {
+        // mutithreading.singleton.Singleton, designPatterns...singleton.Singleton
+        SYNCHRONIZED(false) {
+            @Override
+            LazyField create() {
+                return new LazyField() {
+                    private Payload instance;
+
+                    @Override
+                    public synchronized Payload get() {
+                        if (instance == null) {
+                            instance = new Payload();
+                        }
+                        return instance;
+                    }
+                };
+            }
+        },
+        // doubleCheckLocking.Singleton, SingletonImproved
+        DCL_VOLATILE(false) {
+            @Override
+            LazyField create() {
+                return new LazyField() {
+                    private volatile Payload instance;
+
+                    @Override
+                    public Payload get() {
+                        if (instance == null) {
+                            synchronized (this) {
+                                if (instance == null) {
+                                    instance = new Payload();
+                                }
+                            }
+                        }
+                        return instance;
+                    }
+                };
+            }
+        },
+        // Preferences: plain field read outside the lock, read twice
+        RACY_READ(true) {
+            @Override
+            LazyField create() {
+                return new LazyField() {
+                    private Payload instance;
+
+                    private synchronized void createInstance() {
+                        if (instance == null) {
+                            instance = new Payload();
+                        }
+                    }
+
+                    @Override
+                    public Payload get() {
+                        if (instance == null) {
+                            createInstance();
+                        }
+                        return instance;
+                    }
+                };
+            }
+        },
+        // what the comment in mutithreading.singleton.Singleton warns about
+        UNSYNCHRONIZED(true) {
+            @Override
+            LazyField create() {
+                return new LazyField() {
+                    private Payload instance;
+
+                    @Override
+                    public Payload get() {
+                        if (instance == null) {
+                            instance = new Payload();
+                        }
+                        return instance;
+                    }
+                };
+            }
+        };
+
+        private final boolean broken;
+
+        Variant(boolean broken) {
+            this.broken = broken;
+        }
+
+        abstract LazyField create();
+    }
+
+    private static final int FULL = 0;
+    private static final int PARTIAL = 1;
+    private static final int NULL = 2;
+    private static final int DUPLICATE = 3;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int batch = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (Variant variant : Variant.values()) {
+                long[] outcomes = new long[4];
+                for (int round = 0; round < rounds; round++) {
+                    runRound(executor, variant, batch, outcomes);
+                }
+                boolean forbidden = outcomes[PARTIAL] + outcomes[NULL] + outcomes[DUPLICATE] > 0;
+                System.out.printf("%-15s full: %d, partial: %d, null: %d, duplicate: %d -> %s%n",
+                        variant, outcomes[FULL], outcomes[PARTIAL], outcomes[NULL], outcomes[DUPLICATE],
+                        forbidden ? "UNSAFE (observed)"
+                                : variant.broken ? "unsafe by JMM, not observed in this run" : "safe");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void runRound(ExecutorService executor, Variant variant, int batch, long[] outcomes)
+            throws Exception {
+        final LazyField[] fields = new LazyField[batch];
+        for (int i = 0; i < batch; i++) {
+            fields[i] = variant.create();
+        }
+        final Payload[][] seen = new Payload[2][batch];
+        final CyclicBarrier start = new CyclicBarrier(2);
+        List<Future<int[]>> actors = new ArrayList<>();
+        for (int actor = 0; actor < 2; actor++) {
+            final Payload[] mySeen = seen[actor];
+            actors.add(executor.submit(() -> {
+                int[] counts = new int[3];
+                start.await();
+                for (int i = 0; i < batch; i++) {
+                    Payload payload = fields[i].get();
+                    mySeen[i] = payload;
+                    counts[classify(payload)]++;
+                }
+                return counts;
+            }));
+        }
+        for (Future<int[]> actor : actors) {
+            int[] counts = actor.get();
+            for (int i = 0; i < counts.length; i++) {
+                outcomes[i] += counts[i];
+            }
+        }
+        for (int i = 0; i < batch; i++) {
+            if (seen[0][i] != null && seen[1][i] != null && seen[0][i] != seen[1][i]) {
+                outcomes[DUPLICATE]++;
+            }
+        }
+    }
+
+    // must be checked right after get(), later the missing writes may become visible
+    private static int classify(Payload payload) {
+        if (payload == null) {
+            return NULL;
+        }
+        if (payload.a == 1 && payload.b == 2 && payload.c == 3 && payload.d == 4) {
+            return FULL;
+        }
+        return PARTIAL;
+    }
+
+}
@@ -0,0 +1,22 @@
+package mutithreading.singleton.holder;
+
+public class Singleton {
+
+    private Singleton() {
+
+    }
+
+    // Initialization-on-demand holder.
+    // Holder class is loaded and initialized only on the first getInstance() call.
+    // JVM runs class initialization under a lock and publishes the result safely (JLS 12.4.2),
+    // so the instance is lazy and thread safe without synchronized or volatile.
+    // After initialization getInstance() is a plain static field read - the JIT can treat it as a constant.
+    private static class Holder {
+        private static final Singleton INSTANCE = new Singleton();
+    }
+
+    public static Singleton getInstance() {
+        return Holder.INSTANCE;
+    }
+
+}
@@ -1,9 +1,11 @@
 package mutithreading.synchronization.member_variable;
 
+import mutithreading.logging.AsyncLog;
+
 public class Main {
 
     public static void main(String[] args) {
-        System.out.println("Starting the main thread");
+        AsyncLog.println("Starting the main thread");
         MyRunnable myRunnable1 = new MyRunnable();
         MyRunnable myRunnable2 = new MyRunnable();
 
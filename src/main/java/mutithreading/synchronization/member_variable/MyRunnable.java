@@ -1,5 +1,7 @@
 package mutithreading.synchronization.member_variable;
 
+import mutithreading.logging.AsyncLog;
+
 public class MyRunnable implements Runnable {
 
     private int m_myCount = 0;
@@ -18,7 +20,8 @@ public class MyRunnable implements Runnable {
 
         while (m_myCount <= 1000) {
             m_myCount++;
-            System.out.println(m_myCount);
+            // no console lock inside the synchronized loop
+            AsyncLog.println(m_myCount);
             try {
                 Thread.sleep(10);
             } catch (InterruptedException e) {
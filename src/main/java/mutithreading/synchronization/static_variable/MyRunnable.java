@@ -1,5 +1,7 @@
 package mutithreading.synchronization.static_variable;
 
+import mutithreading.logging.AsyncLog;
+
 public class MyRunnable implements Runnable {
 
     private static int m_myCount = 0;
@@ -16,7 +18,8 @@ public class MyRunnable implements Runnable {
     public synchronized void run() {
         while (m_myCount <= 1000) {
             m_myCount++;
-            System.out.println(m_myCount);
+            // no console lock inside the loop
+            AsyncLog.println(m_myCount);
             try {
                 Thread.sleep(10);
             } catch (InterruptedException e) {
@@ -0,0 +1,112 @@
+package mutithreading.threading_new_school;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AccumulationBenchmark {
+
+    // MyCallable's counter at high task counts: every task adds incrementsPerTask to one count.
+    //  unsynchronized - static field like m_myCount, fast and wrong (lost updates)
+    //  synchronized   - one lock for all threads
+    //  atomic         - CAS on one shared cache line
+    //  map/reduce     - per thread partial count, combined at the end
+    // java -Dexecutor.mode=fixed mutithreading.threading_new_school.AccumulationBenchmark [tasks] [incrementsPerTask] [threads]
+
+    private static long unsynchronizedCount;
+    private static long synchronizedCount;
+    private static final Object LOCK = new Object();
+    private static final AtomicLong ATOMIC_COUNT = new AtomicLong();
+
+    // partial result of one thread
+    static final class Count {
+        long value;
+
+        static Count combine(Count left, Count right) {
+            left.value += right.value;
+            return left;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final int increments = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long expected = (long) tasks * increments;
+
+        ExecutorService executor = ExecutorMode.fromSystemProperty().create(threads);
+        try {
+            for (int round = 0; round < 3; round++) {
+                System.out.println(round == 0 ? "Warm up" : "Round " + round);
+
+                unsynchronizedCount = 0;
+                long start = System.nanoTime();
+                runAll(executor, tasks, () -> {
+                    for (int i = 0; i < increments; i++) {
+                        unsynchronizedCount++;
+                    }
+                });
+                report("unsynchronized", unsynchronizedCount, expected, start);
+
+                synchronizedCount = 0;
+                start = System.nanoTime();
+                runAll(executor, tasks, () -> {
+                    for (int i = 0; i < increments; i++) {
+                        synchronized (LOCK) {
+                            synchronizedCount++;
+                        }
+                    }
+                });
+                report("synchronized", synchronizedCount, expected, start);
+
+                ATOMIC_COUNT.set(0);
+                start = System.nanoTime();
+                runAll(executor, tasks, () -> {
+                    for (int i = 0; i < increments; i++) {
+                        ATOMIC_COUNT.incrementAndGet();
+                    }
+                });
+                report("atomic", ATOMIC_COUNT.get(), expected, start);
+
+                start = System.nanoTime();
+                PartialTask<Count> task = partial -> {
+                    for (int i = 0; i < increments; i++) {
+                        partial.value++;
+                    }
+                };
+                Count total = new MapReduce<>(executor, Count::new, Count::combine)
+                        .execute(Collections.nCopies(tasks, task));
+                report("map/reduce", total.value, expected, start);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void runAll(ExecutorService executor, int tasks, final Runnable body)
+            throws InterruptedException, ExecutionException {
+        Callable<Void> task = () -> {
+            body.run();
+            return null;
+        };
+        List<Future<Void>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(task));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void report(String name, long count, long expected, long startNanos) {
+        double millis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.printf("%-15s %8.1f ms, count: %d%s%n", name, millis, count,
+                count == expected ? "" : " (lost " + (expected - count) + " updates)");
+    }
+
+}
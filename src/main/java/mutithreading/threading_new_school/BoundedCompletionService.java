@@ -0,0 +1,198 @@
+package mutithreading.threading_new_school;
+
+import mutithreading.metrics.LatencyHistogram;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoundedCompletionService<T> implements AutoCloseable {
+
+    // Like ExecutorCompletionService, but
+    // 1. at most maxInFlight tasks are submitted and not yet delivered - the executor queue
+    //    can not grow without limit, submit() blocks or rejects (backpressure)
+    // 2. results are pushed to a ResultConsumer in completion order, nobody calls take().get()
+    // A permit is released only after the consumer handled the result, so a slow consumer
+    // slows down the submitters too.
+
+    public enum OverflowPolicy {
+        BLOCK, REJECT
+    }
+
+    private final Executor executor;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final OverflowPolicy overflowPolicy;
+    private final ResultConsumer<T> consumer;
+    private final BlockingQueue<TimedTask> completed = new LinkedBlockingQueue<>();
+    private final Thread deliveryThread;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final LatencyHistogram queueingDelay = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private volatile long firstSubmitNanos;
+
+    public BoundedCompletionService(Executor executor, int maxInFlight, OverflowPolicy overflowPolicy,
+                                    ResultConsumer<T> consumer) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.overflowPolicy = overflowPolicy;
+        this.consumer = consumer;
+        this.deliveryThread = new Thread(this::deliver, "completion-delivery");
+        this.deliveryThread.setDaemon(true);
+        this.deliveryThread.start();
+    }
+
+    // BLOCK: waits for a free slot, REJECT: throws RejectedExecutionException when K tasks are in flight
+    public void submit(Callable<T> callable) throws InterruptedException {
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            inFlight.acquire();
+        } else if (!inFlight.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("More than " + maxInFlight + " tasks in flight");
+        }
+        if (submitted.getAndIncrement() == 0) {
+            firstSubmitNanos = System.nanoTime();
+        }
+        try {
+            executor.execute(new TimedTask(callable));
+        } catch (RejectedExecutionException e) {
+            submitted.decrementAndGet();
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    // Waits until every submitted task was delivered to the consumer
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!inFlight.tryAcquire(maxInFlight, timeout, unit)) {
+            return false;
+        }
+        inFlight.release(maxInFlight);
+        return true;
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getSucceeded() {
+        return succeeded.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // time between submit and start of execution
+    public LatencyHistogram getQueueingDelay() {
+        return queueingDelay;
+    }
+
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    // delivered results per second since the first submit
+    public double getThroughput() {
+        long elapsed = System.nanoTime() - firstSubmitNanos;
+        long delivered = succeeded.get() + failed.get();
+        return delivered == 0 ? 0 : delivered / (elapsed / 1e9);
+    }
+
+    public String stats() {
+        return String.format("submitted: %d, succeeded: %d, failed: %d, rejected: %d, in flight: %d, throughput: %.1f/s%n"
+                        + "queueing delay: %s%nexecution time: %s",
+                getSubmitted(), getSucceeded(), getFailed(), getRejected(), getInFlight(), getThroughput(),
+                queueingDelay, executionTime);
+    }
+
+    // Stops delivery, does not shut down the executor
+    @Override
+    public void close() {
+        deliveryThread.interrupt();
+    }
+
+    private void deliver() {
+        try {
+            while (true) {
+                TimedTask task = completed.take();
+                T result = null;
+                Throwable error = null;
+                try {
+                    result = task.get();
+                } catch (ExecutionException e) {
+                    error = e.getCause();
+                } catch (CancellationException e) {
+                    error = e;
+                }
+                // consumer code runs in its own try: an exception thrown from onResult or onError
+                // must not kill this thread, otherwise no permit is released and BLOCK submitters hang
+                try {
+                    if (error == null) {
+                        consumer.onResult(result);
+                        succeeded.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                        consumer.onError(error);
+                    }
+                } catch (RuntimeException e) {
+                    if (error == null) {
+                        // consumer could not handle the result
+                        failed.incrementAndGet();
+                    }
+                    e.printStackTrace();
+                } finally {
+                    inFlight.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    private class TimedTask extends FutureTask<T> {
+        private final long submitNanos = System.nanoTime();
+
+        TimedTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            queueingDelay.record(start - submitNanos);
+            super.run();
+            executionTime.record(System.nanoTime() - start);
+        }
+
+        @Override
+        protected void done() {
+            completed.add(this);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package mutithreading.threading_new_school;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public enum ExecutorMode {
+
+    // Pool of platform threads, at most poolSize tasks run (or sleep) at the same time
+    FIXED,
+    // One virtual thread per task (JDK 21+). A sleeping or blocked virtual thread does not hold
+    // a platform thread, so 100 callables sleeping 1 s take ~1 s instead of ~10 s.
+    // On older JDKs falls back to FIXED.
+    VIRTUAL;
+
+    // -Dexecutor.mode=fixed|virtual
+    public static ExecutorMode fromSystemProperty() {
+        return valueOf(System.getProperty("executor.mode", "fixed").toUpperCase());
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return virtualThreadFactoryMethod() != null;
+    }
+
+    public ExecutorService create(int poolSize) {
+        if (this == VIRTUAL) {
+            Method method = virtualThreadFactoryMethod();
+            if (method != null) {
+                try {
+                    return (ExecutorService) method.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    e.printStackTrace();
+                }
+            }
+            System.out.println("Virtual threads need Java 21+, running on " + System.getProperty("java.version")
+                    + ", using fixed thread pool of " + poolSize);
+        }
+        return Executors.newFixedThreadPool(poolSize);
+    }
+
+    // Looked up by reflection, so the class still compiles and runs with Java 8
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 public class Main {
@@ -19,7 +18,8 @@ public class Main {
         // to many thread keeping track of them etc.
 
         // Create a single executor from a thread bank of 10 threads
-        ExecutorService executor = Executors.newFixedThreadPool(10);
+        // -Dexecutor.mode=virtual runs every callable on its own virtual thread (Java 21+)
+        ExecutorService executor = ExecutorMode.fromSystemProperty().create(10);
 
         // When executor runs a callable, the result is stored in form of a future object.
         // The Future<> object is a template, which stands for the result of the other thread.
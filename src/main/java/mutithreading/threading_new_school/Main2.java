@@ -10,7 +10,8 @@ public class Main2 {
         // CompletionService
         // Return a queue of Future objects in the order in which they finish
 
-        ExecutorService executor = Executors.newFixedThreadPool(10);
+        // -Dexecutor.mode=virtual runs every callable on its own virtual thread (Java 21+)
+        ExecutorService executor = ExecutorMode.fromSystemProperty().create(10);
         CompletionService<Integer> completionService = new ExecutorCompletionService<Integer>(executor);
 
         for (int i = 0; i < 100; i++) {
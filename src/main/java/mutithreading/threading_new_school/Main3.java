@@ -0,0 +1,59 @@
+package mutithreading.threading_new_school;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class Main3 {
+
+    public static void main(String[] args) throws InterruptedException {
+        // Main2 with backpressure: CompletionService lets us submit any number of callables,
+        // all of them wait in the unbounded executor queue.
+        // BoundedCompletionService allows at most 20 outstanding tasks, submit() blocks
+        // until one of them is delivered, and results are streamed to the consumer
+        // in the order in which they finish.
+
+        ExecutorService executor = ExecutorMode.fromSystemProperty().create(10);
+        BoundedCompletionService<Integer> completionService = new BoundedCompletionService<>(executor, 20,
+                BoundedCompletionService.OverflowPolicy.BLOCK, new ResultConsumer<Integer>() {
+            @Override
+            public void onResult(Integer oneResult) {
+                System.out.println(oneResult + " was obtained from the callable that just finished executing");
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            completionService.submit(new MyCallable());
+        }
+
+        completionService.awaitDelivery(1, TimeUnit.MINUTES);
+        System.out.println(completionService.stats());
+        completionService.close();
+
+        // Consumer that throws from onError: delivery must go on, otherwise with one slot in flight
+        // the second submit() would block forever
+        BoundedCompletionService<Integer> failing = new BoundedCompletionService<>(executor, 1,
+                BoundedCompletionService.OverflowPolicy.BLOCK, new ResultConsumer<Integer>() {
+            @Override
+            public void onResult(Integer result) {
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                throw new IllegalStateException("consumer failed on: " + error.getMessage());
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            failing.submit(() -> {
+                throw new Exception("task failed");
+            });
+        }
+        boolean delivered = failing.awaitDelivery(10, TimeUnit.SECONDS);
+        System.out.println("Throwing onError: all delivered: " + delivered + ", failed: " + failing.getFailed());
+        if (!delivered || failing.getFailed() != 5) {
+            throw new IllegalStateException("Delivery stopped after a throwing onError");
+        }
+        failing.close();
+        executor.shutdown();
+    }
+
+}
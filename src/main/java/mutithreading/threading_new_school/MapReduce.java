@@ -0,0 +1,73 @@
+package mutithreading.threading_new_school;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+public class MapReduce<A> {
+
+    // Instead of every task updating one shared counter (lock, or CAS on one contended cache line),
+    // every pool thread gets its own partial result on first use and all tasks it runs write into it.
+    // After all tasks completed, the partials are merged with the combiner on the calling thread.
+    // Future.get() of a task happens-after everything the task did, so once all futures are done
+    // every write to every partial is visible here without further synchronization.
+    // Number of partials = number of threads that ran tasks (one per task with virtual threads).
+
+    private final ExecutorService executor;
+    private final Supplier<A> identity;
+    private final BinaryOperator<A> combiner;
+
+    public MapReduce(ExecutorService executor, Supplier<A> identity, BinaryOperator<A> combiner) {
+        this.executor = executor;
+        this.identity = identity;
+        this.combiner = combiner;
+    }
+
+    // Waits for all tasks, throws the first failure (after the others finished, so no task still writes)
+    public A execute(Collection<? extends PartialTask<A>> tasks) throws InterruptedException, ExecutionException {
+        final Queue<A> partials = new ConcurrentLinkedQueue<>();
+        // new ThreadLocal per execution, old values in pool threads are cleaned up once it is garbage
+        final ThreadLocal<A> partial = ThreadLocal.withInitial(() -> {
+            A created = identity.get();
+            partials.add(created);
+            return created;
+        });
+
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (final PartialTask<A> task : tasks) {
+            futures.add(executor.submit(() -> {
+                task.accumulate(partial.get());
+                return null;
+            }));
+        }
+
+        ExecutionException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        // Reduce step
+        A result = identity.get();
+        for (A value : partials) {
+            result = combiner.apply(result, value);
+        }
+        return result;
+    }
+
+}
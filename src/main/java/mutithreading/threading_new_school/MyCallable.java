@@ -18,6 +18,8 @@ public class MyCallable implements Callable<Integer> {
     // exceptions to be caught and handled by the main thread. This is a major advantage - otherwise it is difficult
     // for the main thread to catch exception from threading issues.
 
+    // Read-modify-write from 10 pool threads without synchronization: updates get lost.
+    // Thread confined partial counts combined after all tasks finished: MapReduce, AccumulationBenchmark
     private static int m_myCount = 0;
 
     public static int getM_myCount() {
@@ -0,0 +1,10 @@
+package mutithreading.threading_new_school;
+
+public interface PartialTask<A> {
+
+    // Map step: add the contribution of this task to partial.
+    // partial belongs to the thread running the task, nothing else touches it while the task runs,
+    // so plain fields are enough - no lock, no atomic.
+    void accumulate(A partial) throws Exception;
+
+}
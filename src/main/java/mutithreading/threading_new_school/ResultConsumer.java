@@ -0,0 +1,12 @@
+package mutithreading.threading_new_school;
+
+public interface ResultConsumer<T> {
+
+    // Called from one delivery thread, in the order in which tasks finish
+    void onResult(T result);
+
+    default void onError(Throwable error) {
+        error.printStackTrace();
+    }
+
+}
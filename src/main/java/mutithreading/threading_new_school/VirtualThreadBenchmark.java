@@ -0,0 +1,97 @@
+package mutithreading.threading_new_school;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VirtualThreadBenchmark {
+
+    // Wall clock time and peak heap for N sleeping (IO-bound like) callables
+    // java -Dbenchmark.sleep.ms=100 -Dbenchmark.pool.size=200 mutithreading.threading_new_school.VirtualThreadBenchmark 10000 100000 1000000
+
+    private static final long SLEEP_MILLIS = Long.getLong("benchmark.sleep.ms", 100);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool.size", 200);
+    // fixed pool needs tasks / poolSize * sleep, skip runs that would take longer than this
+    private static final long MAX_EXPECTED_SECONDS = Long.getLong("benchmark.max.seconds", 120);
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int[] taskCounts = args.length > 0 ? new int[args.length] : new int[]{10_000, 100_000, 1_000_000};
+        for (int i = 0; i < args.length; i++) {
+            taskCounts[i] = Integer.parseInt(args[i]);
+        }
+        if (!ExecutorMode.isVirtualThreadSupported()) {
+            System.out.println("Java " + System.getProperty("java.version") + ": no virtual threads, VIRTUAL = FIXED");
+        }
+
+        for (int tasks : taskCounts) {
+            for (ExecutorMode mode : ExecutorMode.values()) {
+                boolean fixedPool = mode == ExecutorMode.FIXED || !ExecutorMode.isVirtualThreadSupported();
+                long expectedSeconds = fixedPool ? tasks / POOL_SIZE * SLEEP_MILLIS / 1000 : SLEEP_MILLIS / 1000;
+                if (expectedSeconds > MAX_EXPECTED_SECONDS) {
+                    System.out.printf("%-8s tasks: %8d  skipped, would take ~%d s%n", mode, tasks, expectedSeconds);
+                    continue;
+                }
+                run(mode, tasks);
+            }
+        }
+    }
+
+    private static void run(ExecutorMode mode, int tasks) throws InterruptedException, ExecutionException {
+        System.gc();
+        // peak thread count is per JVM, without a reset every run reports the largest earlier peak
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final AtomicLong peakHeap = new AtomicLong();
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long used = memory.getHeapMemoryUsage().getUsed();
+                if (used > peakHeap.get()) {
+                    peakHeap.set(used);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        ExecutorService executor = mode.create(POOL_SIZE);
+        List<Future<Integer>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            final int id = i;
+            futures.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    Thread.sleep(SLEEP_MILLIS);
+                    return id;
+                }
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            future.get();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executor.shutdown();
+        // pool threads of this run must not count in the next one
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        sampler.interrupt();
+
+        System.out.printf("%-8s tasks: %8d  wall time: %7d ms  peak heap: %6d MB  peak threads: %d%n",
+                mode, tasks, millis, peakHeap.get() / (1024 * 1024),
+                threads.getPeakThreadCount());
+    }
+
+}
@@ -0,0 +1,304 @@
+package mutithreading.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HashedWheelTimer implements AutoCloseable {
+
+    // Hashed timing wheel (Varghese & Lauck, same idea as Netty's HashedWheelTimer).
+    // The wheel is an array of buckets, one bucket per tick. A timeout due in N ticks goes to
+    // bucket (now + N) % wheelSize and remembers how many full turns (rounds) it still has to wait.
+    // One ticker thread wakes up every tick and expires only the current bucket, the tasks run on
+    // the worker executor. schedule() and cancel() only add to a lock-free queue - O(1),
+    // the ticker moves them into / out of the buckets.
+    // Precision is one tick: good for tens of thousands of periodic jobs and timeouts,
+    // not for microsecond deadlines.
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeTimeouts = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Thread ticker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick; // only used by ticker thread
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel, Executor executor) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickDuration and ticksPerWheel must be positive");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel * 2 - 1);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::runTicker, "hashed-wheel-timer");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return add(new Entry(task, deadline(delay, unit), 0));
+    }
+
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive: " + period);
+        }
+        return add(new Entry(task, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    // Adapter for loop based workers: runs tick() every period until it returns false or throws
+    public Timeout repeat(final Tick tick, long initialDelay, long period, TimeUnit unit) {
+        final AtomicReference<Timeout> self = new AtomicReference<>();
+        final AtomicBoolean stop = new AtomicBoolean();
+        Runnable task = () -> {
+            boolean again;
+            try {
+                again = tick.tick();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                again = false;
+            } catch (Exception e) {
+                e.printStackTrace();
+                again = false;
+            }
+            if (!again) {
+                stop.set(true);
+                Timeout timeout = self.get();
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+            }
+        };
+        Timeout timeout = scheduleAtFixedRate(task, initialDelay, period, unit);
+        self.set(timeout);
+        if (stop.get()) {
+            timeout.cancel();
+        }
+        return timeout;
+    }
+
+    // scheduled and not yet expired or cancelled (periodic ones until they are cancelled)
+    public int getActiveTimeouts() {
+        return activeTimeouts.get();
+    }
+
+    // expirations the executor did not accept (shut down, bounded pool full)
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    private long deadline(long delay, TimeUnit unit) {
+        return System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+    }
+
+    private Timeout add(Entry entry) {
+        if (!running) {
+            throw new IllegalStateException("Timer is closed");
+        }
+        activeTimeouts.incrementAndGet();
+        pending.add(entry);
+        return entry;
+    }
+
+    private void runTicker() {
+        while (running) {
+            long tickDeadline = (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    // round up, waking up early would only cost one more loop
+                    Thread.sleep((sleepNanos + 999_999) / 1_000_000);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            removeCancelled();
+            transferPending();
+            expire(wheel[(int) (tick & mask)], tickDeadline);
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        Entry entry;
+        while ((entry = cancelled.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Entry entry = pending.poll();
+            if (entry == null) {
+                return;
+            }
+            if (!entry.isCancelled()) {
+                place(entry, tick);
+            }
+        }
+    }
+
+    private void place(Entry entry, long minTick) {
+        long dueTick = entry.deadline / tickNanos;
+        entry.remainingRounds = (dueTick - minTick) / wheel.length;
+        // already overdue -> current tick
+        long bucketTick = Math.max(dueTick, minTick);
+        wheel[(int) (bucketTick & mask)].add(entry);
+    }
+
+    private void expire(Bucket bucket, long tickDeadline) {
+        Entry entry = bucket.head;
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.remainingRounds <= 0 && entry.deadline < tickDeadline) {
+                bucket.remove(entry);
+                fire(entry);
+            } else {
+                entry.remainingRounds--;
+            }
+            entry = next;
+        }
+    }
+
+    private void fire(final Entry entry) {
+        if (entry.periodNanos > 0) {
+            if (entry.isCancelled()) {
+                // cancelled after removeCancelled() of this tick
+                return;
+            }
+            // fixed rate: next deadline from previous deadline, not from now, so there is no drift;
+            // never into the bucket that is being expired right now
+            entry.deadline += entry.periodNanos;
+            place(entry, tick + 1);
+            if (!entry.running.compareAndSet(false, true)) {
+                // previous run still busy, skip this one instead of piling up
+                return;
+            }
+        } else if (!entry.state.compareAndSet(Entry.INIT, Entry.EXPIRED)) {
+            return;
+        } else {
+            activeTimeouts.decrementAndGet();
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    entry.task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                } finally {
+                    entry.running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // must not kill the ticker: a one-shot timeout counts as expired,
+            // a periodic one stays scheduled and tries again next period
+            entry.running.set(false);
+            if (rejected.incrementAndGet() == 1) {
+                // report the first one only, a shut down executor would fail every tick
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private final class Entry implements Timeout {
+        static final int INIT = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        final Runnable task;
+        final long periodNanos;
+        final AtomicInteger state = new AtomicInteger(INIT);
+        final AtomicBoolean running = new AtomicBoolean();
+        long deadline;
+        long remainingRounds;
+        Bucket bucket;
+        Entry prev;
+        Entry next;
+
+        Entry(Runnable task, long deadline, long periodNanos) {
+            this.task = task;
+            this.deadline = deadline;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            activeTimeouts.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+
+    // Doubly linked list, only touched by the ticker thread
+    private static final class Bucket {
+        Entry head;
+        Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package mutithreading.timer;
+
+import mutithreading.java_multi_threading.basic_synchronization.App;
+import mutithreading.simulations_and_multithreading.blocking_queue.FirstWorker;
+import mutithreading.simulations_and_multithreading.executorService.Worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PeriodicJobsDemo {
+
+    // The sleep-loop workers and 20 000 extra periodic jobs on 1 ticker thread + 4 worker threads.
+    // With one thread per job this would be 20 000+ threads.
+    // java mutithreading.timer.PeriodicJobsDemo [jobs]
+
+    public static void main(String[] args) throws InterruptedException {
+        int jobs = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 512, workers);
+
+        List<Timeout> timeouts = new ArrayList<>();
+        mutithreading.simulations_and_multithreading.thread_states.Worker stateWorker =
+                new mutithreading.simulations_and_multithreading.thread_states.Worker();
+        timeouts.add(stateWorker.scheduleOn(timer));
+        timeouts.add(App.scheduleProcessor(timer));
+        timeouts.add(new FirstWorker(new ArrayBlockingQueue<String>(5)).scheduleOn(timer));
+        timeouts.add(new Worker().scheduleOn(timer));
+
+        final LongAdder runs = new LongAdder();
+        for (int i = 0; i < jobs; i++) {
+            // spread first runs over one second
+            timeouts.add(timer.scheduleAtFixedRate(runs::increment, i % 1000, 1000, TimeUnit.MILLISECONDS));
+        }
+
+        Thread.sleep(5000);
+        stateWorker.finish();
+        for (Timeout timeout : timeouts) {
+            timeout.cancel();
+        }
+        System.out.println("Periodic job runs: " + runs.sum() + " (expected ~" + jobs * 5 + "), live threads: "
+                + Thread.activeCount() + ", active timeouts: " + timer.getActiveTimeouts());
+        timer.close();
+        workers.shutdown();
+    }
+
+}
@@ -0,0 +1,9 @@
+package mutithreading.timer;
+
+public interface Tick {
+
+    // One iteration of a former while (true) { ...; Thread.sleep(n); } loop.
+    // Return false to stop being scheduled.
+    boolean tick() throws Exception;
+
+}
@@ -0,0 +1,10 @@
+package mutithreading.timer;
+
+public interface Timeout {
+
+    // O(1), the entry is unlinked from its wheel bucket on the next tick
+    boolean cancel();
+
+    boolean isCancelled();
+
+}
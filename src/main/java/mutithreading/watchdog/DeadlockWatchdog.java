@@ -0,0 +1,307 @@
+package mutithreading.watchdog;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class DeadlockWatchdog implements Closeable {
+
+    // Background check every checkInterval:
+    //  - deadlock: ThreadMXBean.findDeadlockedThreads (monitors and ReentrantLock / AQS locks)
+    //  - stall: a watched thread is WAITING, TIMED_WAITING or BLOCKED longer than stallThreshold
+    //    and its blocked / waited counters did not move, so it is the same wait all the time
+    // Both are reported once, with the lock-owner chain and stack traces of every thread in it.
+    //
+    // Cost per check: stall detection reads ThreadInfo without stack traces for watched threads only,
+    // findDeadlockedThreads needs a safepoint (all threads stop for a moment, ~tens of us for small JVMs).
+    // Stack traces are taken only when something is reported. Tune with checkInterval and maxStackDepth,
+    // or with -Dwatchdog.interval.ms, -Dwatchdog.stall.ms, -Dwatchdog.depth (see fromSystemProperties).
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final long checkIntervalNanos;
+    private final long stallThresholdNanos;
+    private final int maxStackDepth;
+    private final PrintStream out;
+    private final Set<Long> watched = ConcurrentHashMap.newKeySet();
+    // accessed by the check thread only
+    private final Map<Long, Stall> stalls = new HashMap<>();
+    private final Set<Long> reportedDeadlocks = new HashSet<>();
+    private ScheduledExecutorService scheduler;
+
+    private static class Stall {
+        final Thread.State state;
+        final long blockedCount;
+        final long waitedCount;
+        final long since;
+        boolean reported;
+
+        Stall(ThreadInfo info, long since) {
+            this.state = info.getThreadState();
+            this.blockedCount = info.getBlockedCount();
+            this.waitedCount = info.getWaitedCount();
+            this.since = since;
+        }
+
+        boolean sameWait(ThreadInfo info) {
+            return state == info.getThreadState() && blockedCount == info.getBlockedCount()
+                    && waitedCount == info.getWaitedCount();
+        }
+    }
+
+    public DeadlockWatchdog(long checkInterval, long stallThreshold, TimeUnit unit, int maxStackDepth, PrintStream out) {
+        if (checkInterval <= 0 || stallThreshold <= 0 || maxStackDepth < 0) {
+            throw new IllegalArgumentException("Interval and threshold must be positive, depth not negative");
+        }
+        this.checkIntervalNanos = unit.toNanos(checkInterval);
+        this.stallThresholdNanos = unit.toNanos(stallThreshold);
+        this.maxStackDepth = maxStackDepth;
+        this.out = out;
+    }
+
+    // defaults: check every 1 s, stall after 5 s, 16 frames per thread
+    public static DeadlockWatchdog fromSystemProperties() {
+        return new DeadlockWatchdog(Long.getLong("watchdog.interval.ms", 1000), Long.getLong("watchdog.stall.ms", 5000),
+                TimeUnit.MILLISECONDS, Integer.getInteger("watchdog.depth", 16), System.out);
+    }
+
+    // Stall detection is done only for watched threads - JVM threads (Finalizer, Reference Handler...)
+    // and idle pool threads wait forever by design. Deadlocks are detected for all threads.
+    public DeadlockWatchdog watch(Thread... threads) {
+        for (Thread thread : threads) {
+            watched.add(thread.getId());
+        }
+        return this;
+    }
+
+    public synchronized DeadlockWatchdog start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "deadlock-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                String report = check();
+                if (!report.isEmpty()) {
+                    out.print(report);
+                }
+            }, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // One check, returns what is new since the previous check (empty string when nothing)
+    public synchronized String check() {
+        StringBuilder report = new StringBuilder();
+        checkDeadlocks(report);
+        checkStalls(report);
+        return report.toString();
+    }
+
+    private void checkDeadlocks(StringBuilder report) {
+        long[] deadlocked = threadMXBean.isSynchronizerUsageSupported()
+                ? threadMXBean.findDeadlockedThreads() : threadMXBean.findMonitorDeadlockedThreads();
+        if (deadlocked == null) {
+            return;
+        }
+        boolean isNew = false;
+        for (long id : deadlocked) {
+            isNew |= reportedDeadlocks.add(id);
+        }
+        if (!isNew) {
+            return;
+        }
+        report.append("DEADLOCK detected, ").append(deadlocked.length).append(" threads:")
+                .append(System.lineSeparator());
+        appendThreads(report, deadlocked);
+    }
+
+    private void checkStalls(StringBuilder report) {
+        if (watched.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long[] ids = toArray(watched);
+        // no stack traces, no lock lists - the cheap call
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(ids, 0);
+        for (int i = 0; i < ids.length; i++) {
+            ThreadInfo info = infos[i];
+            if (info == null) {
+                // thread terminated
+                watched.remove(ids[i]);
+                stalls.remove(ids[i]);
+                continue;
+            }
+            if (!isWaiting(info.getThreadState())) {
+                stalls.remove(ids[i]);
+                continue;
+            }
+            if (reportedDeadlocks.contains(ids[i])) {
+                // already reported as deadlock, it can not be anything else
+                continue;
+            }
+            Stall stall = stalls.get(ids[i]);
+            if (stall == null || !stall.sameWait(info)) {
+                stalls.put(ids[i], new Stall(info, now));
+            } else if (!stall.reported && now - stall.since >= stallThresholdNanos) {
+                stall.reported = true;
+                report.append(String.format("STALL: \"%s\" is %s for %d ms%n", info.getThreadName(),
+                        info.getThreadState(), TimeUnit.NANOSECONDS.toMillis(now - stall.since)));
+                appendThreads(report, new long[]{ids[i]});
+            }
+        }
+    }
+
+    // Every thread and the chain of lock owners it waits for, with stack traces
+    private void appendThreads(StringBuilder report, long[] ids) {
+        Set<Long> printed = new HashSet<>();
+        for (long id : ids) {
+            if (printed.contains(id)) {
+                continue;
+            }
+            long current = id;
+            String indent = "  ";
+            while (current != -1 && printed.add(current)) {
+                ThreadInfo info = threadInfo(current);
+                if (info == null) {
+                    break;
+                }
+                appendThread(report, info, indent);
+                current = info.getLockOwnerId();
+                indent += "  ";
+            }
+            if (current != -1) {
+                // in a deadlock the chain ends in a cycle
+                report.append(indent).append("owner \"").append(threadName(current))
+                        .append("\" is listed above").append(System.lineSeparator());
+            }
+        }
+    }
+
+    private void appendThread(StringBuilder report, ThreadInfo info, String indent) {
+        report.append(indent).append('"').append(info.getThreadName()).append("\" id=").append(info.getThreadId())
+                .append(' ').append(info.getThreadState());
+        LockInfo lock = info.getLockInfo();
+        if (lock != null) {
+            report.append(" on ").append(lock);
+            if (info.getLockOwnerId() != -1) {
+                report.append(" owned by \"").append(info.getLockOwnerName()).append("\" id=")
+                        .append(info.getLockOwnerId());
+            } else if (info.getThreadState() != Thread.State.BLOCKED) {
+                // Object.wait / Condition.await: nobody owns it, somebody has to notify / signal
+                report.append(" (waiting for notify / signal)");
+            }
+        }
+        report.append(System.lineSeparator());
+        StackTraceElement[] stackTrace = info.getStackTrace();
+        MonitorInfo[] monitors = info.getLockedMonitors();
+        int depth = Math.min(stackTrace.length, maxStackDepth);
+        for (int i = 0; i < depth; i++) {
+            report.append(indent).append("    at ").append(stackTrace[i]).append(System.lineSeparator());
+            for (MonitorInfo monitor : monitors) {
+                if (monitor.getLockedStackDepth() == i) {
+                    report.append(indent).append("    - locked ").append(monitor).append(System.lineSeparator());
+                }
+            }
+        }
+        if (depth < stackTrace.length) {
+            report.append(indent).append("    ...").append(System.lineSeparator());
+        }
+        for (LockInfo synchronizer : info.getLockedSynchronizers()) {
+            report.append(indent).append("    - holds ").append(synchronizer).append(System.lineSeparator());
+        }
+    }
+
+    private ThreadInfo threadInfo(long id) {
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(new long[]{id},
+                threadMXBean.isObjectMonitorUsageSupported(), threadMXBean.isSynchronizerUsageSupported());
+        if (infos.length == 0 || infos[0] == null) {
+            return null;
+        }
+        // Java 8 has no maxDepth for this call, the whole stack is taken and cut when printed
+        return infos[0];
+    }
+
+    private String threadName(long id) {
+        ThreadInfo info = threadMXBean.getThreadInfo(id);
+        return info == null ? String.valueOf(id) : info.getThreadName();
+    }
+
+    private static boolean isWaiting(Thread.State state) {
+        return state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING || state == Thread.State.BLOCKED;
+    }
+
+    private static long[] toArray(Set<Long> ids) {
+        long[] result = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            if (i == result.length) {
+                break;
+            }
+            result[i++] = id;
+        }
+        return i == result.length ? result : Arrays.copyOf(result, i);
+    }
+
+    // Classic lock ordering deadlock: t1 takes A then B, t2 takes B then A
+    public static void main(String[] args) throws InterruptedException {
+        final Object lockA = new Object();
+        final java.util.concurrent.locks.Lock lockB = new java.util.concurrent.locks.ReentrantLock();
+        Thread t1 = new Thread(() -> {
+            synchronized (lockA) {
+                sleep(100);
+                lockB.lock();
+                lockB.unlock();
+            }
+        }, "first");
+        Thread t2 = new Thread(() -> {
+            lockB.lock();
+            try {
+                sleep(100);
+                synchronized (lockA) {
+                    System.out.println("never printed");
+                }
+            } finally {
+                lockB.unlock();
+            }
+        }, "second");
+        t1.setDaemon(true);
+        t2.setDaemon(true);
+        try (DeadlockWatchdog watchdog = new DeadlockWatchdog(200, 1000, TimeUnit.MILLISECONDS, 8, System.out)) {
+            watchdog.watch(t1, t2).start();
+            t1.start();
+            t2.start();
+            Thread.sleep(2000);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}